@@ -32,6 +32,7 @@ import java.util.Map;
  * - This exception is designed for file processing operations where specific errors
  *   need to be identified and handled with clear messages.
  * - Provides detailed error descriptions to help with debugging and error handling.
+ * - The error type is available through {@code getType()}, so callers can classify the failure.
  */
 public class FileAnalyzerException extends Exception {
 
@@ -57,7 +58,14 @@ public class FileAnalyzerException extends Exception {
         errorMessages.put(Type.INVALID_ORDER_AMOUNT, "The order amount format is incorrect!");
     }
 
+    private final Type type;
+
     public FileAnalyzerException(Type type) {
         super(errorMessages.get(type));
+        this.type = type;
+    }
+
+    public Type getType() {
+        return type;
     }
 }
\ No newline at end of file
@@ -20,6 +20,7 @@ import java.util.Map;
  * - FILE_NOT_FOUND: Indicates that the specified file for exporting was not found.
  * - IO_ERROR: Signals an input/output operation failure during the export process.
  * - INVALID_DATA: Denotes that the data provided for export is invalid or incompatible.
+ * - UNSUPPORTED_FORMAT: Indicates that a statistics snapshot has an unknown format or version, or is corrupted.
 
  * Design Patterns:
  * - Utilizes an enum to organize and structure error types.
@@ -33,7 +34,8 @@ public class StatisticsExportException extends AppException {
     public enum Type {
         FILE_NOT_FOUND,
         IO_ERROR,
-        INVALID_DATA
+        INVALID_DATA,
+        UNSUPPORTED_FORMAT
     }
 
     private static final Map<Type, String> errorMessages = new HashMap<>();
@@ -42,6 +44,7 @@ public class StatisticsExportException extends AppException {
         errorMessages.put(Type.FILE_NOT_FOUND, "The file was not found!");
         errorMessages.put(Type.IO_ERROR, "Data input/output error!");
         errorMessages.put(Type.INVALID_DATA, "Invalid data for export!");
+        errorMessages.put(Type.UNSUPPORTED_FORMAT, "Unsupported statistics snapshot format!");
     }
 
     private final Type type;
@@ -16,7 +16,7 @@ import static com.teachmeskills.application.utils.constant.ServiceConstants.I_LO
  * - Handle unexpected exceptions during execution.
 
  * Workflow:
- * 1. Instantiate the DocumentAnalysisCoordinator.
+ * 1. Instantiate the DocumentAnalysisCoordinator with the command-line options.
  * 2. Execute the document analysis via the coordinator.
  * 3. Handle exceptions by logging critical errors and notifying the user.
  * 4. Perform cleanup operations with resource shutdown in the finally block.
@@ -27,11 +27,22 @@ import static com.teachmeskills.application.utils.constant.ServiceConstants.I_LO
 
  * Cleanup:
  * - Gracefully shuts down system resources such as configuration loaders and authentication gateways.
+
+ * Command-Line Options:
+ * - {@code --shard-id <id>}: Overrides {@code STATS_SHARD_ID}, the stable id under which the statistics
+ *   snapshot of this run is saved when {@code STATS_SNAPSHOT_DIR} is configured. The id is handed to the
+ *   coordinator, so a reload of the properties file does not reset it.
  */
 public class FinancialAnalysisLauncher {
     public static void main(String[] args) {
+        String shardId = null;
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals("--shard-id")) {
+                shardId = args[++i];
+            }
+        }
         try {
-            DocumentAnalysisCoordinator manager = new DocumentAnalysisCoordinator();
+            DocumentAnalysisCoordinator manager = new DocumentAnalysisCoordinator(shardId);
             manager.executeDocumentAnalysis();
         } catch (Exception e) {
             System.out.println("\nAn unexpected malfunction of the application.. Contact the administrator.");
@@ -0,0 +1,106 @@
+package com.teachmeskills.application.launcher;
+
+import com.teachmeskills.application.services.logger.LogLevel;
+import com.teachmeskills.application.services.logger.query.LogQuery;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.EnumSet;
+import java.util.Set;
+/**
+ * The LogQueryTool class is a command-line entry point that prints the log entries of a time range.
+
+ * Usage:
+ * - {@code LogQueryTool --from <time> --to <time> [--level <LEVEL>]... [--location <text>] [--dir <log directory>]}
+ * - A time is an ISO local date-time ({@code 2024-05-01T10:15}, {@code 2024-05-01T10:15:30}), a date
+ *   ({@code 2024-05-01}, meaning its start for {@code --from} and its end for {@code --to}) or epoch milliseconds
+ * - {@code --level} may be repeated; without it, all levels are searched
+ * - {@code --location} keeps only entries whose caller location contains the text
+ *   (for example, {@code FileAnalyzer.processCheck})
+
+ * Output:
+ * - Matching entries (with their stack trace lines) are written to standard output; the number of entries,
+ *   files and bytes read and the elapsed time are written to standard error
+
+ * Exit Codes:
+ * - 0 on success, 1 on an I/O error, 2 on invalid arguments
+ */
+public class LogQueryTool {
+
+    public static void main(String[] args) {
+        Long from = null;
+        Long to = null;
+        Set<LogLevel> levels = EnumSet.noneOf(LogLevel.class);
+        String location = null;
+        Path directory = LogQuery.defaultLogDirectory();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                String value = i + 1 < args.length ? args[++i] : null;
+                if (value == null) {
+                    throw new IllegalArgumentException("Missing value for " + option);
+                }
+                switch (option) {
+                    case "--from" -> from = parseTime(value, false);
+                    case "--to" -> to = parseTime(value, true);
+                    case "--level" -> levels.add(LogLevel.valueOf(value.trim().toUpperCase()));
+                    case "--location" -> location = value;
+                    case "--dir" -> directory = Path.of(value);
+                    default -> throw new IllegalArgumentException("Unknown option: " + option);
+                }
+            }
+            if (from == null || to == null) {
+                throw new IllegalArgumentException("Both --from and --to are required");
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: LogQueryTool --from <time> --to <time> [--level <LEVEL>]... "
+                    + "[--location <text>] [--dir <log directory>]");
+            System.exit(2);
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        BufferedWriter output = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 64 * 1024);
+        try {
+            LogQuery.Result result = new LogQuery(directory, from, to, levels, location).run(line -> {
+                try {
+                    output.write(line);
+                    output.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            output.flush();
+            System.err.printf("%d entries found in %d files (%d KB read) in %d ms%n", result.matchedEntries(),
+                    result.scannedFiles(), result.scannedBytes() / 1024, (System.nanoTime() - startNanos) / 1_000_000);
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Failed to query the logs: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static long parseTime(String value, boolean endOfRange) {
+        String text = value.trim();
+        if (text.chars().allMatch(Character::isDigit)) {
+            return Long.parseLong(text);
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        if (text.length() == 10) {
+            LocalDate date = LocalDate.parse(text);
+            return endOfRange
+                    ? date.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli() - 1
+                    : date.atStartOfDay(zone).toInstant().toEpochMilli();
+        }
+        return LocalDateTime.parse(text).atZone(zone).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,129 @@
+package com.teachmeskills.application.launcher;
+
+import com.teachmeskills.application.exception.StatisticsExportException;
+import com.teachmeskills.application.services.parser.stats.InvalidFileStats;
+import com.teachmeskills.application.services.statistic.impl.StatsService;
+import com.teachmeskills.application.services.statistic.snapshot.ShardSnapshot;
+import com.teachmeskills.application.services.statistic.snapshot.ShardSnapshotCodec;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.teachmeskills.application.utils.constant.FilePathConstants.AMOUNT_STATS_FILE_NAME;
+import static com.teachmeskills.application.utils.constant.FilePathConstants.INVALID_STATS_FILE_NAME;
+import static com.teachmeskills.application.utils.constant.FilePathConstants.PERIOD_STATS_FILE_NAME;
+import static com.teachmeskills.application.utils.constant.ServiceConstants.I_LOGGER;
+/**
+ * The StatisticsMergeTool class is a command-line entry point that merges the statistics snapshots of
+ * several runs (shards) into the reports of the whole archive.
+
+ * Usage:
+ * - {@code StatisticsMergeTool [--out <file>] [--period-out <file>] [--invalid-out <file>] [--save <file>]
+ *   <snapshot file or directory>...}
+ * - A directory stands for all snapshot files ({@code *.stats}) in it, for example the shared
+ *   {@code STATS_SNAPSHOT_DIR} of the shards
+ * - {@code --out}, {@code --period-out} and {@code --invalid-out} default to the report files of a regular run
+ *   ({@code oleg_total_amount.txt}, {@code oleg_period_amount.txt}, {@code oleg_invalid_files_report.txt})
+ * - {@code --save} additionally writes the merged snapshot, which can itself be merged again later
+ * - Every shard id may occur only once: a snapshot that covers a shard already merged from another file
+ *   (for example a stale copy or a merged snapshot that contains it) is rejected, as it would be counted twice
+ * - Snapshots saved before shard ids were recorded are merged with a warning, as duplicates cannot be detected
+
+ * Output:
+ * - The merged statistics are displayed like at the end of a regular run and written to the report files;
+ *   the number of snapshots and shards merged and the elapsed time are written to standard error
+
+ * Exit Codes:
+ * - 0 on success, 1 on an I/O error, an unreadable snapshot or a shard contained in two snapshots,
+ *   2 on invalid arguments
+ */
+public class StatisticsMergeTool {
+
+    public static void main(String[] args) {
+        String amountReport = AMOUNT_STATS_FILE_NAME;
+        String periodReport = PERIOD_STATS_FILE_NAME;
+        String invalidReport = INVALID_STATS_FILE_NAME;
+        Path mergedSnapshot = null;
+        List<Path> inputs = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (!option.startsWith("--")) {
+                    inputs.add(Path.of(option));
+                    continue;
+                }
+                String value = i + 1 < args.length ? args[++i] : null;
+                if (value == null) {
+                    throw new IllegalArgumentException("Missing value for " + option);
+                }
+                switch (option) {
+                    case "--out" -> amountReport = value;
+                    case "--period-out" -> periodReport = value;
+                    case "--invalid-out" -> invalidReport = value;
+                    case "--save" -> mergedSnapshot = Path.of(value);
+                    default -> throw new IllegalArgumentException("Unknown option: " + option);
+                }
+            }
+            if (inputs.isEmpty()) {
+                throw new IllegalArgumentException("At least one snapshot file or directory is required");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: StatisticsMergeTool [--out <file>] [--period-out <file>] [--invalid-out <file>] "
+                    + "[--save <file>] <snapshot file or directory>...");
+            System.exit(2);
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        try {
+            List<Path> files = new ArrayList<>();
+            for (Path input : inputs) {
+                files.addAll(Files.isDirectory(input) ? ShardSnapshotCodec.listSnapshots(input) : List.of(input));
+            }
+
+            ShardSnapshot merged = ShardSnapshot.empty();
+            Map<String, Path> shardFiles = new HashMap<>();
+            for (Path file : files) {
+                ShardSnapshot snapshot = ShardSnapshotCodec.load(file);
+                List<String> duplicates = merged.sharedShardIds(snapshot);
+                if (!duplicates.isEmpty()) {
+                    System.err.println("Shard " + duplicates.getFirst() + " is contained in both "
+                            + shardFiles.get(duplicates.getFirst()) + " and " + file
+                            + "; remove one of them and merge again");
+                    System.exit(1);
+                    return;
+                }
+                if (snapshot.shardIds().isEmpty()) {
+                    System.err.println("Warning: " + file + " carries no shard id, so a duplicate of it cannot be detected");
+                }
+                snapshot.shardIds().forEach(shardId -> shardFiles.put(shardId, file));
+                merged = merged.merge(snapshot);
+            }
+            if (mergedSnapshot != null) {
+                ShardSnapshotCodec.save(merged, mergedSnapshot);
+            }
+
+            StatsService statistics = new StatsService(I_LOGGER);
+            InvalidFileStats invalidFileStats = new InvalidFileStats();
+            merged.applyTo(statistics, invalidFileStats);
+
+            statistics.displayStatistics();
+            statistics.exportStatisticsToFile(amountReport);
+            statistics.exportPeriodStatisticsToFile(periodReport);
+            invalidFileStats.exportReportToFile(invalidReport);
+            System.err.printf("%d snapshot files (%d shards, %d invalid files) merged in %d ms%n", files.size(),
+                    merged.shards(), merged.getInvalidFileCount(), (System.nanoTime() - startNanos) / 1_000_000);
+        } catch (StatisticsExportException e) {
+            System.err.println("Failed to merge the statistics snapshots: " + e.getMessage()
+                    + (e.getCause() != null ? " " + e.getCause().getMessage() : ""));
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+}
@@ -2,16 +2,20 @@ package com.teachmeskills.application.launcher.core;
 
 import com.teachmeskills.application.security.resource.AuthenticatedUserData;
 import com.teachmeskills.application.services.authentication.AuthenticationService;
+import com.teachmeskills.application.services.parser.config.ParserOptions;
 import com.teachmeskills.application.services.parser.impl.ParserService;
+import com.teachmeskills.application.services.parser.watch.DocumentDirectoryWatcher;
 import com.teachmeskills.application.services.statistic.impl.StatsService;
 import com.teachmeskills.application.session.ISession;
 import com.teachmeskills.application.session.impl.SessionManager;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Date;
 import java.util.Map;
 
 import static com.teachmeskills.application.utils.constant.FilePathConstants.CONFIG_DIR;
+import static com.teachmeskills.application.launcher.core.AuthenticationGateway.scanner;
 import static com.teachmeskills.application.utils.constant.FilePathConstants.QR_CODE_DIR;
 import static com.teachmeskills.application.utils.constant.ServiceConstants.I_ENCRYPTION_SERVICE;
 import static com.teachmeskills.application.utils.constant.ServiceConstants.I_LOGGER;
@@ -19,9 +23,33 @@ import static com.teachmeskills.application.utils.constant.ServiceConstants.I_LO
  * The DocumentAnalysisCoordinator class is responsible for orchestrating the document
  * analysis workflow. This includes initializing necessary resources, managing authentication,
  * and analyzing documents from a user-supplied directory.
+
+ * When the watch mode is enabled, the coordinator keeps watching the directory after the
+ * initial analysis and ingests new or modified documents until the user presses ENTER.
+
+ * The parser options are built before the user is authenticated, so an invalid configuration (for
+ * example a snapshot directory without a shard id) stops the run before any prompt.
  */
 public class DocumentAnalysisCoordinator {
+    private final String shardId;
+
+    public DocumentAnalysisCoordinator() {
+        this(null);
+    }
+
+    public DocumentAnalysisCoordinator(String shardId) {
+        this.shardId = shardId;
+    }
+
     public void executeDocumentAnalysis() {
+        ParserOptions options;
+        try {
+            options = ParserOptions.fromConfiguration(shardId);
+        } catch (IllegalArgumentException e) {
+            System.out.println("\nInvalid configuration: " + e.getMessage());
+            I_LOGGER.logError("Invalid parser configuration: " + e.getMessage());
+            return;
+        }
         try {
             createNecessaryDirectories();
             String header = "LAUNCHING the PROGRAM";
@@ -39,7 +67,7 @@ public class DocumentAnalysisCoordinator {
 
             String documentsPath = DocumentDirectorySelector.promptForDocumentDirectory();
 
-            analyzeDocuments(userData, documentsPath);
+            analyzeDocuments(userData, documentsPath, options);
             System.out.println("\nThe document analysis has been completed successfully!");
             I_LOGGER.logInfo("The document analysis has been completed successfully!");
         } catch (Exception e) {
@@ -61,7 +89,8 @@ public class DocumentAnalysisCoordinator {
         }
     }
 
-    private void analyzeDocuments(AuthenticatedUserData authenticatedUserData, String documentsFolderPath) {
+    private void analyzeDocuments(AuthenticatedUserData authenticatedUserData, String documentsFolderPath,
+                                  ParserOptions options) {
         try {
             long startTime = System.currentTimeMillis();
 
@@ -89,7 +118,7 @@ public class DocumentAnalysisCoordinator {
                 authenticatedUserData.setExpirationDate(expirationDate);
             }
 
-            ParserService parserService = new ParserService(session, I_LOGGER, statistics);
+            ParserService parserService = new ParserService(session, I_LOGGER, statistics, options);
             parserService.parseDocumentsInDirectory(documentsFolderPath, accessToken);
             CloudDataUploader cloudDataUploader = new CloudDataUploader();
             cloudDataUploader.uploadStatisticsToCloud();
@@ -98,10 +127,25 @@ public class DocumentAnalysisCoordinator {
             System.out.println("\nThe processing of documents is completed in " + processingTime + " ms.");
             I_LOGGER.logInfo("The processing of documents is completed in " + processingTime + " ms.");
 
+            if (options.watchMode()) {
+                watchDocuments(parserService, documentsFolderPath, options);
+            }
+
         } catch (Exception e) {
             System.out.println("\nError in processing documents. Try again!");
             I_LOGGER.logError("Document processing error: " +
                             e.getClass().getSimpleName() + " - " + e.getMessage());
         }
     }
+
+    private void watchDocuments(ParserService parserService, String documentsFolderPath, ParserOptions options)
+            throws IOException {
+        try (DocumentDirectoryWatcher watcher = new DocumentDirectoryWatcher(
+                parserService, documentsFolderPath, options.watchDebounceMillis(), I_LOGGER)) {
+            watcher.start();
+            System.out.println("\nWatching " + documentsFolderPath + " for new documents. Press ENTER to stop..");
+            scanner.nextLine();
+        }
+        System.out.println("\nThe watch mode has been stopped, the statistics exports are up to date.");
+    }
 }
\ No newline at end of file
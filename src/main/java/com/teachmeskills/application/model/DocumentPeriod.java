@@ -0,0 +1,85 @@
+package com.teachmeskills.application.model;
+/**
+ * The accounting period (year and month) of a document, as carried by the name of its file.
+
+ * Parsing Rules:
+ * - The file name without its extension is split into its runs of digits, so a token ends at any other
+ *   character, including a letter
+ * - The first token of four digits between {@link #MIN_YEAR} and {@link #MAX_YEAR} is the year
+ * - The first other token of one or two digits between 1 and 12 is the month
+ * - Examples: {@code INVOICE_03_2023.txt} and {@code invoice_03_2023_realhandy.txt} are March 2023,
+ *   {@code 2024_Electric_Bill_01.txt} is January 2024, {@code 2024_Electric_Bill_big0.txt} is 2024
+ *   with an unknown month, {@code 2024invoice_03.txt} is March 2024 and {@code order12345.txt} has neither
+
+ * Usage Notes:
+ * - A value of {@code 0} means unknown; {@link #UNKNOWN} has neither a year nor a month
+ * - Every four-digit year is recognized; whether a year is processed is decided by the year filter
+ *   of the parser, and years without a rollup of their own share one in the statistics
+ */
+public record DocumentPeriod(int year, int month) {
+
+    public static final int MIN_YEAR = 1000;
+    public static final int MAX_YEAR = 9999;
+    public static final DocumentPeriod UNKNOWN = new DocumentPeriod(0, 0);
+
+    public DocumentPeriod {
+        if (year != 0 && (year < MIN_YEAR || year > MAX_YEAR)) {
+            throw new IllegalArgumentException("Unsupported year: " + year);
+        }
+        if (month < 0 || month > 12) {
+            throw new IllegalArgumentException("Unsupported month: " + month);
+        }
+    }
+
+    public static DocumentPeriod fromFileName(String fileName) {
+        int end = fileName.lastIndexOf('.');
+        if (end <= 0) {
+            end = fileName.length();
+        }
+
+        int year = 0;
+        int month = 0;
+        int start = 0;
+        while (start < end && (year == 0 || month == 0)) {
+            while (start < end && !isDigit(fileName.charAt(start))) {
+                start++;
+            }
+            int tokenEnd = start;
+            while (tokenEnd < end && isDigit(fileName.charAt(tokenEnd))) {
+                tokenEnd++;
+            }
+
+            int length = tokenEnd - start;
+            if (length > 0 && length <= 4) {
+                int value = Integer.parseInt(fileName, start, tokenEnd, 10);
+                if (length == 4 && year == 0 && value >= MIN_YEAR && value <= MAX_YEAR) {
+                    year = value;
+                } else if (length <= 2 && month == 0 && value >= 1 && value <= 12) {
+                    month = value;
+                }
+            }
+            start = tokenEnd;
+        }
+        return year == 0 && month == 0 ? UNKNOWN : new DocumentPeriod(year, month);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    public boolean hasYear() {
+        return year != 0;
+    }
+
+    public boolean hasMonth() {
+        return month != 0;
+    }
+
+    @Override
+    public String toString() {
+        if (!hasYear()) {
+            return hasMonth() ? String.format("????-%02d", month) : "unknown";
+        }
+        return hasMonth() ? String.format("%d-%02d", year, month) : Integer.toString(year);
+    }
+}
@@ -0,0 +1,66 @@
+package com.teachmeskills.application.model;
+
+import com.teachmeskills.application.model.impl.Check;
+import com.teachmeskills.application.model.impl.Invoice;
+import com.teachmeskills.application.model.impl.Order;
+/**
+ * Enumerates the supported financial document types.
+
+ * Each constant carries the name used in reports and the currency symbol used
+ * when its amounts are displayed. The ordinal of a constant is used as a compact
+ * array index by the statistics store, so new types must be appended at the end.
+
+ * Key Features:
+ * - Display names ("Check", "Invoice", "Order") shared by reports and the file manifest
+ * - Currency symbol per document type
+ * - Creation of a document of the given type from an exact amount in minor units
+ */
+public enum DocumentType {
+
+    CHECK("Check", "€"),
+    INVOICE("Invoice", "$"),
+    ORDER("Order", "€");
+
+    private static final DocumentType[] VALUES = values();
+
+    private final String displayName;
+    private final String currencySymbol;
+
+    DocumentType(String displayName, String currencySymbol) {
+        this.displayName = displayName;
+        this.currencySymbol = currencySymbol;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getCurrencySymbol() {
+        return currencySymbol;
+    }
+
+    public IDocument createDocument(long totalAmountInMinorUnits) {
+        return switch (this) {
+            case CHECK -> Check.ofMinorUnits(totalAmountInMinorUnits);
+            case INVOICE -> Invoice.ofMinorUnits(totalAmountInMinorUnits);
+            case ORDER -> Order.ofMinorUnits(totalAmountInMinorUnits);
+        };
+    }
+
+    public static DocumentType fromDisplayName(String displayName) {
+        for (DocumentType type : VALUES) {
+            if (type.displayName.equals(displayName)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown document type: " + displayName);
+    }
+
+    public static int count() {
+        return VALUES.length;
+    }
+
+    public static DocumentType ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -14,6 +14,8 @@ package com.teachmeskills.application.model;
 
  * Key Responsibilities:
  * - Define a method to retrieve the total amount of a document
+ * - Expose the exact fixed-point amount in minor units (cents) for accumulation
+ * - Identify the {@link DocumentType} of the document
 
  * Implementations:
  * Classes implementing this interface must specify the behavior for
@@ -23,4 +25,8 @@ package com.teachmeskills.application.model;
 public interface IDocument {
 
     double getTotalAmount();
+
+    long getTotalAmountInMinorUnits();
+
+    DocumentType getType();
 }
\ No newline at end of file
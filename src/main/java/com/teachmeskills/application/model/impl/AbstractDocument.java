@@ -1,8 +1,7 @@
 package com.teachmeskills.application.model.impl;
 
 import com.teachmeskills.application.model.IDocument;
-
-import java.util.Objects;
+import com.teachmeskills.application.utils.money.MinorUnits;
 /**
  * Represents the base implementation of a financial document with a total monetary amount.
 
@@ -12,7 +11,8 @@ import java.util.Objects;
  * instance.
 
  * Design Characteristics:
- * - Immutable total amount property.
+ * - Immutable total amount property, stored as a fixed-point number of minor units (cents).
+ * - Amounts given as {@code double} are rounded to two fraction digits using HALF_UP.
  * - Implements the core method from the IDocument interface.
  * - Serves as a base class for specific financial document types.
 
@@ -27,31 +27,41 @@ import java.util.Objects;
 
  * Methods:
  * - getTotalAmount(): Retrieves the immutable total amount of the document.
+ * - getTotalAmountInMinorUnits(): Retrieves the exact total amount in minor units.
  * - equals(): Compares this document with another object for equality based on the totalAmount.
  * - hashCode(): Generates a hashcode based on the totalAmount for consistent hashing.
  */
 public abstract class AbstractDocument implements IDocument {
 
-    private final double totalAmount;
+    private final long totalAmountInMinorUnits;
 
     protected AbstractDocument(double totalAmount) {
-        this.totalAmount = totalAmount;
+        this(MinorUnits.fromDouble(totalAmount));
+    }
+
+    protected AbstractDocument(long totalAmountInMinorUnits) {
+        this.totalAmountInMinorUnits = totalAmountInMinorUnits;
     }
 
     @Override
     public double getTotalAmount() {
-        return totalAmount;
+        return MinorUnits.toDouble(totalAmountInMinorUnits);
+    }
+
+    @Override
+    public long getTotalAmountInMinorUnits() {
+        return totalAmountInMinorUnits;
     }
 
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof AbstractDocument document)) return false;
-        return Double.compare(document.totalAmount, totalAmount) == 0;
+        return document.totalAmountInMinorUnits == totalAmountInMinorUnits;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(totalAmount);
+        return Long.hashCode(totalAmountInMinorUnits);
     }
 }
\ No newline at end of file
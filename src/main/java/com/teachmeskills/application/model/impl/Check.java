@@ -1,4 +1,6 @@
 package com.teachmeskills.application.model.impl;
+
+import com.teachmeskills.application.model.DocumentType;
 /**
  * Represents a financial check document with a specific total amount.
 
@@ -11,6 +13,9 @@ package com.teachmeskills.application.model.impl;
  * - Extensibility: Forms part of a hierarchical document system for diverse types of financial records.
  * - Integration: Used in financial systems for processing, tracking, and reporting check-related transactions.
 
+ * Creation:
+ * - {@code new Check(double)} rounds the amount to cents; {@code Check.ofMinorUnits(long)} takes the exact amount.
+
  * Design Characteristics:
  * - Immutable total monetary amount set during instantiation.
  * - Lightweight object model for easy integration into financial workflows.
@@ -31,4 +36,17 @@ public class Check extends AbstractDocument {
     public Check(double totalAmount) {
         super(totalAmount);
     }
+
+    private Check(long totalAmountInMinorUnits) {
+        super(totalAmountInMinorUnits);
+    }
+
+    public static Check ofMinorUnits(long totalAmountInMinorUnits) {
+        return new Check(totalAmountInMinorUnits);
+    }
+
+    @Override
+    public DocumentType getType() {
+        return DocumentType.CHECK;
+    }
 }
\ No newline at end of file
@@ -1,4 +1,6 @@
 package com.teachmeskills.application.model.impl;
+
+import com.teachmeskills.application.model.DocumentType;
 /**
  * Represents a financial invoice document with a specific total monetary amount.
 
@@ -12,6 +14,9 @@ package com.teachmeskills.application.model.impl;
  *   financial document properties consistently.
  * - Integration into Financial Workflows: Compatible with systems that manage and analyze invoice transactions.
 
+ * Creation:
+ * - {@code new Invoice(double)} rounds the amount to cents; {@code Invoice.ofMinorUnits(long)} takes the exact amount.
+
  * Design and Usability:
  * - Ensures lightweight object modeling for streamlined integration.
  * - Serves as part of a consistent financial document system.
@@ -27,4 +32,17 @@ public class Invoice extends AbstractDocument {
     public Invoice(double totalAmount) {
         super(totalAmount);
     }
+
+    private Invoice(long totalAmountInMinorUnits) {
+        super(totalAmountInMinorUnits);
+    }
+
+    public static Invoice ofMinorUnits(long totalAmountInMinorUnits) {
+        return new Invoice(totalAmountInMinorUnits);
+    }
+
+    @Override
+    public DocumentType getType() {
+        return DocumentType.INVOICE;
+    }
 }
\ No newline at end of file
@@ -1,4 +1,6 @@
 package com.teachmeskills.application.model.impl;
+
+import com.teachmeskills.application.model.DocumentType;
 /**
  * Represents a financial order document with a specific total monetary amount.
 
@@ -13,6 +15,9 @@ package com.teachmeskills.application.model.impl;
  * - Part of a Financial Document System: Integrates with other financial documents, such as checks
  *   and invoices, for use in broader financial workflows.
 
+ * Creation:
+ * - {@code new Order(double)} rounds the amount to cents; {@code Order.ofMinorUnits(long)} takes the exact amount.
+
  * Use Cases:
  * - Payment Processing: Used in systems handling order payments.
  * - Record Keeping: Maintains a consistent and immutable record of order details.
@@ -28,4 +33,17 @@ public class Order extends AbstractDocument {
     public Order(double totalAmount) {
         super(totalAmount);
     }
+
+    private Order(long totalAmountInMinorUnits) {
+        super(totalAmountInMinorUnits);
+    }
+
+    public static Order ofMinorUnits(long totalAmountInMinorUnits) {
+        return new Order(totalAmountInMinorUnits);
+    }
+
+    @Override
+    public DocumentType getType() {
+        return DocumentType.ORDER;
+    }
 }
\ No newline at end of file
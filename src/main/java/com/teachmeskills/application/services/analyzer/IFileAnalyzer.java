@@ -1,15 +1,17 @@
 package com.teachmeskills.application.services.analyzer;
 
-import com.teachmeskills.application.exception.FileAnalyzerException;
+import com.teachmeskills.application.services.analyzer.result.FileAnalysisResult;
 
 import java.io.File;
 /**
  * Interface for the implementation of file analysis functionalities.
- * Provides a contract for analyzing files and validating the contents of files.
+ * Provides a contract for validating and analyzing the contents of files.
+
+ * The {@code analyzeFile} method validates and analyzes a file in a single read and reports
+ * the outcome as a {@link FileAnalysisResult} instead of throwing an exception; the documents
+ * are recorded under the given file path, which identifies the file within the document directory.
  */
 public interface IFileAnalyzer {
 
-    void performFileAnalysis(File file) throws FileAnalyzerException;
-
-    boolean checkFileContentValidity(File file) throws FileAnalyzerException;
+    FileAnalysisResult analyzeFile(File file, String filePath);
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.teachmeskills.application.services.analyzer.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+import static com.teachmeskills.application.utils.constant.FileIOConstants.DIRECT_SCAN_BUFFER_SIZE;
+/**
+ * The {@code DirectBufferScanner} class scans a file at the byte level through a reusable direct
+ * buffer and decodes only the lines that can contain an amount.
+
+ * How it works:
+ * - The file is read chunk by chunk from a {@link FileChannel} into a per-thread direct buffer
+ * - Lines are split on the raw {@code '\n'} and {@code '\r'} bytes, without decoding
+ * - Every line is run through the {@link KeywordPrefilter} automaton directly on the raw bytes
+ * - Only lines that can match one of the amount patterns are decoded into a {@link String} and
+ *   handed to the {@link CandidateHandler} together with the candidate mask; other lines are never decoded
+ * - Lines are numbered from {@code 1} while they are split; {@code "\r\n"} ends a single line, as it does
+ *   for {@link java.io.BufferedReader#readLine()}
+
+ * Design Considerations:
+ * - A direct buffer is used instead of a memory-mapped file, because a mapped file stays locked on
+ *   some platforms until the mapping is garbage collected, which would prevent rejected files from
+ *   being moved to the invalid folder
+ * - A line longer than the buffer is processed in buffer-sized segments
+
+ * Thread Safety:
+ * - Each thread uses its own buffer, so a single instance may be shared by all parser workers
+ */
+public class DirectBufferScanner {
+
+    private static final ThreadLocal<ByteBuffer> BUFFER =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(DIRECT_SCAN_BUFFER_SIZE));
+    private static final ThreadLocal<byte[]> DECODE_BUFFER =
+            ThreadLocal.withInitial(() -> new byte[256]);
+
+    @FunctionalInterface
+    public interface CandidateHandler {
+        void accept(String line, int lineNumber, int candidates);
+    }
+
+    private static final class LineCounter {
+        private int lineNumber = 1;
+        private boolean afterCarriageReturn;
+    }
+
+    public void scan(File file, CandidateHandler handler) throws IOException {
+        ByteBuffer buffer = BUFFER.get();
+        buffer.clear();
+        LineCounter counter = new LineCounter();
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            boolean endOfFile = false;
+            while (!endOfFile) {
+                endOfFile = channel.read(buffer) < 0;
+                buffer.flip();
+
+                int consumed = scanLines(buffer, endOfFile, counter, handler);
+                if (consumed == 0 && buffer.limit() == buffer.capacity()) {
+                    scanLine(buffer, 0, buffer.limit(), counter.lineNumber, handler);
+                    counter.afterCarriageReturn = false;
+                    consumed = buffer.limit();
+                }
+
+                buffer.position(consumed);
+                buffer.compact();
+            }
+        }
+    }
+
+    private int scanLines(ByteBuffer buffer, boolean endOfFile, LineCounter counter, CandidateHandler handler) {
+        int limit = buffer.limit();
+        int lineStart = 0;
+
+        for (int i = 0; i < limit; i++) {
+            byte current = buffer.get(i);
+            if (current == '\n' || current == '\r') {
+                boolean lineFeedOfCrLf = current == '\n' && counter.afterCarriageReturn && i == lineStart;
+                if (!lineFeedOfCrLf) {
+                    scanLine(buffer, lineStart, i, counter.lineNumber++, handler);
+                }
+                counter.afterCarriageReturn = current == '\r';
+                lineStart = i + 1;
+            }
+        }
+
+        if (endOfFile && lineStart < limit) {
+            scanLine(buffer, lineStart, limit, counter.lineNumber++, handler);
+            lineStart = limit;
+        }
+        return lineStart;
+    }
+
+    private void scanLine(ByteBuffer buffer, int start, int end, int lineNumber, CandidateHandler handler) {
+        int candidates = KeywordPrefilter.getInstance().candidates(buffer, start, end);
+        if (candidates != KeywordPrefilter.NONE) {
+            handler.accept(decode(buffer, start, end), lineNumber, candidates);
+        }
+    }
+
+    private String decode(ByteBuffer buffer, int start, int end) {
+        int length = end - start;
+        byte[] bytes = DECODE_BUFFER.get();
+        if (bytes.length < length) {
+            bytes = new byte[Math.max(length, bytes.length * 2)];
+            DECODE_BUFFER.set(bytes);
+        }
+        buffer.get(start, bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -1,19 +1,26 @@
 package com.teachmeskills.application.services.analyzer.impl;
 
 import com.teachmeskills.application.exception.FileAnalyzerException;
+import com.teachmeskills.application.model.DocumentPeriod;
+import com.teachmeskills.application.model.IDocument;
 import com.teachmeskills.application.model.impl.Check;
 import com.teachmeskills.application.model.impl.Invoice;
 import com.teachmeskills.application.model.impl.Order;
 import com.teachmeskills.application.services.analyzer.IFileAnalyzer;
+import com.teachmeskills.application.services.analyzer.result.FileAnalysisResult;
 import com.teachmeskills.application.services.logger.ILogger;
 import com.teachmeskills.application.services.statistic.impl.StatsService;
+import com.teachmeskills.application.utils.money.MinorUnits;
 
 import static com.teachmeskills.application.utils.constant.FileIOConstants.BUFFER_SIZE;
+import static com.teachmeskills.application.utils.constant.FileIOConstants.DIRECT_SCAN_THRESHOLD_KB;
 import static com.teachmeskills.application.utils.constant.FileIOConstants.MAX_FILE_SIZE_MB;
 import static com.teachmeskills.application.utils.constant.ParsingRegexConstants.*;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -26,18 +33,36 @@ import java.util.regex.Pattern;
  * This class handles the following scenarios:
  * - Validation of file content based on specific patterns.
  * - Processing of lines that represent checks, invoices, or orders, and recording them in the associated statistics service.
+ * - Amounts are parsed straight into fixed-point minor units, without an intermediate {@code double}.
  * - Validation and handling of file-related constraints such as size limits and readability.
 
+ * Files of at least {@code DIRECT_SCAN_THRESHOLD_KB} are scanned by the {@link DirectBufferScanner}, which works on
+ * raw bytes and decodes only the lines that can contain an amount.
+
+ * Before any regex runs, every line goes through the {@link KeywordPrefilter} automaton, and only the
+ * patterns whose keyword occurs in the line are evaluated.
+
  * It uses an internal static class, PatternCache, to compile and reuse the regex patterns for matching lines of the
  * file, improving performance.
 
+ * The {@code analyzeFile} method fuses validation and analysis: the file is opened and scanned once,
+ * the extracted documents are recorded only when the file turns out to be valid, and the outcome is
+ * returned as a {@link FileAnalysisResult}.
+
+ * Every document is recorded together with its file path and line number, which feed the largest
+ * documents kept by the statistics service; the line numbers are also part of the result, so cached
+ * documents can be recorded with their location again.
+
  * Key features:
  * - Validating file format and line patterns using regex.
- * - Logging each action or error using the provided ILogger instance.
+ * - Logging each action or error using the provided ILogger instance; messages are parameterized,
+ *   so per-line logging builds no strings when its level is disabled.
  * - Properly handling invalid data formats and input/output exceptions by throwing FileAnalyzerException with appropriate types.
  */
 public class FileAnalyzer implements IFileAnalyzer {
 
+    private static final DirectBufferScanner DIRECT_BUFFER_SCANNER = new DirectBufferScanner();
+
     private final StatsService statistic;
     private final ILogger logger;
 
@@ -49,136 +74,157 @@ public class FileAnalyzer implements IFileAnalyzer {
 
     public FileAnalyzer(StatsService statistic, ILogger logger) {
         this.statistic = Objects.requireNonNull(statistic, "StatsService cannot be null!");
-        this.logger = Objects.requireNonNull(logger, "Logger cannot be null!");
+        this.logger = Objects.requireNonNull(logger, "Logger cannot be null!").forSource(FileAnalyzer.class);
     }
 
     @Override
-    public boolean checkFileContentValidity(File file) throws FileAnalyzerException {
-        logger.logInfo("Checking the contents of the file: " + file.getName());
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE)) {
-
-            if (file.length() > MAX_FILE_SIZE_MB * 1024 * 1024) {
-                logger.logError("The file is too big to process: " + file.getName() + " (size: " + file.length() + " bytes)");
-                throw new FileAnalyzerException(FileAnalyzerException.Type.FILE_TOO_LARGE);
-            }
+    public FileAnalysisResult analyzeFile(File file, String filePath) {
+        logger.logInfo("The beginning of single-pass file analysis: %s", file.getName());
+        try {
+            DocumentCollector collector = extractDocuments(file);
+            recordDocuments(filePath, collector.documents, collector.lineNumbers, DocumentPeriod.fromFileName(file.getName()));
 
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (isValidLine(line)) {
-                    logger.logInfo("A valid line was found in the file: " + file.getName());
-                    return true;
-                }
-            }
-            logger.logWarning("No valid lines found in the file: " + file.getName());
-            return false;
-        } catch (IOException e) {
-            logger.logError("File verification error: " + file.getName() + " - " + e.getMessage());
-            throw new FileAnalyzerException(FileAnalyzerException.Type.IO_ERROR);
+            logger.logInfo("File analysis completed: %s", file.getName());
+            return FileAnalysisResult.accepted(file.getName(), collector.documents, collector.lineNumbers);
+        } catch (FileAnalyzerException e) {
+            return FileAnalysisResult.rejected(file.getName(), e);
         }
     }
 
-    @Override
-    public void performFileAnalysis(File file) throws FileAnalyzerException {
-        logger.logInfo("The beginning of file analysis: " + file.getName());
+    public void recordDocuments(String filePath, List<IDocument> documents, List<Integer> lineNumbers, DocumentPeriod period) {
+        for (int i = 0; i < documents.size(); i++) {
+            recordDocument(documents.get(i), period, filePath, lineNumbers.get(i));
+        }
+    }
 
+    private DocumentCollector extractDocuments(File file) throws FileAnalyzerException {
         if (!file.exists() || !file.canRead()) {
             throw new FileAnalyzerException(FileAnalyzerException.Type.FILE_NOT_READABLE);
         }
+        if (file.length() > MAX_FILE_SIZE_MB * 1024 * 1024) {
+            logger.logError("The file is too big to process: %s (size: %d bytes)", file.getName(), file.length());
+            throw new FileAnalyzerException(FileAnalyzerException.Type.FILE_TOO_LARGE);
+        }
 
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+        DocumentCollector collector = new DocumentCollector();
+        try {
+            if (file.length() >= DIRECT_SCAN_THRESHOLD_KB * 1024L) {
+                DIRECT_BUFFER_SCANNER.scan(file, collector::accept);
+            } else {
+                readLines(file, collector);
+            }
+        } catch (IOException e) {
+            logger.logError("File reading error: %s - %s", file.getName(), e.getMessage());
+            throw new FileAnalyzerException(FileAnalyzerException.Type.IO_ERROR);
+        }
 
-            if (file.length() > MAX_FILE_SIZE_MB * 1024 * 1024) {
-                throw new FileAnalyzerException(FileAnalyzerException.Type.FILE_TOO_LARGE);
+        if (collector.documents.isEmpty()) {
+            if (collector.lastLineError != null) {
+                throw collector.lastLineError;
             }
+            logger.logWarning("No valid lines found in the file: %s", file.getName());
+            throw new FileAnalyzerException(FileAnalyzerException.Type.NO_VALID_LINES);
+        }
+        return collector;
+    }
 
-            long validLinesCount = reader.lines()
-                    .filter(this::processLine)
-                    .count();
+    private void readLines(File file, DocumentCollector collector) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE)) {
 
-            if (validLinesCount == 0) {
-                throw new FileAnalyzerException(FileAnalyzerException.Type.NO_VALID_LINES);
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                collector.accept(line, ++lineNumber, KeywordPrefilter.getInstance().candidates(line));
             }
-
-            logger .logInfo("File analysis completed: " + file.getName());
-        } catch (IOException e) {
-            logger.logError("File reading error: " + file.getName() + " - " + e.getMessage());
-            throw new FileAnalyzerException(FileAnalyzerException.Type.IO_ERROR);
         }
     }
 
-    private boolean isValidLine(String line) {
-        return line != null && !line.trim().isEmpty() &&
-                (PatternCache.CHECK_PATTERN.matcher(line).find() ||
-                        PatternCache.INVOICE_PATTERN.matcher(line).find() ||
-                        PatternCache.ORDER_PATTERN.matcher(line).find());
-    }
+    private class DocumentCollector {
+        private final List<IDocument> documents = new ArrayList<>();
+        private final List<Integer> lineNumbers = new ArrayList<>();
+        private FileAnalyzerException lastLineError;
 
-    private boolean processLine(String line) {
-        if (line == null || line.trim().isEmpty()) {
-            return false;
+        void accept(String line, int lineNumber, int candidates) {
+            if (line.trim().isEmpty()) {
+                return;
+            }
+            try {
+                IDocument document = parseLine(line, candidates);
+                if (document != null) {
+                    documents.add(document);
+                    lineNumbers.add(lineNumber);
+                }
+            } catch (FileAnalyzerException e) {
+                logger.logError("String processing error: %s - %s", line, e.getMessage());
+                lastLineError = e;
+            }
         }
+    }
 
-        try {
-            return processCheck(line) || processInvoice(line) || processOrder(line);
-        } catch (FileAnalyzerException e) {
-            logger.logError("String processing error: " + line + " - " + e.getMessage());
-            return false;
+    private IDocument parseLine(String line, int candidates) throws FileAnalyzerException {
+        IDocument document = processCheck(line, (candidates & KeywordPrefilter.CHECK) != 0);
+        if (document == null) {
+            document = processInvoice(line, (candidates & KeywordPrefilter.INVOICE) != 0);
         }
+        if (document == null) {
+            document = processOrder(line, (candidates & KeywordPrefilter.ORDER) != 0);
+        }
+        return document;
+    }
+
+    private void recordDocument(IDocument document, DocumentPeriod period, String filePath, int lineNumber) {
+        statistic.record(document, period, filePath, lineNumber);
     }
 
-    private boolean processCheck(String line) throws FileAnalyzerException {
-        Matcher checkMatcher = PatternCache.CHECK_PATTERN.matcher(line);
-        if (checkMatcher.find()) {
+    private Check processCheck(String line, boolean candidate) throws FileAnalyzerException {
+        Matcher checkMatcher = candidate ? PatternCache.CHECK_PATTERN.matcher(line) : null;
+        if (checkMatcher != null && checkMatcher.find()) {
             try {
                 String amountString = checkMatcher.group(1).replace(",", ".");
-                double amount = Double.parseDouble(amountString);
-                statistic.recordCheck(new Check(amount));
-                logger.logInfo("The CHECK has been processed successfully: amount = " + amount + ", line = " + line);
-                return true;
+                long amount = MinorUnits.parse(amountString);
+                logger.logInfo("The CHECK has been processed successfully: amount = %s, line = %s", MinorUnits.toBigDecimal(amount), line);
+                return Check.ofMinorUnits(amount);
             } catch (NumberFormatException e) {
-                logger.logError("Incorrect format of the CHECK amount: " + line + " (failed to convert: " + checkMatcher.group(1) + ")");
+                logger.logError("Incorrect format of the CHECK amount: %s (failed to convert: %s)", line, checkMatcher.group(1));
                 throw new FileAnalyzerException(FileAnalyzerException.Type.INVALID_CHECK_AMOUNT);
             }
         }
-        logger.logWarning("Invalid string in CHECK for processing: " + line);
-        return false;
+        logger.logWarning("Invalid string in CHECK for processing: %s", line);
+        return null;
     }
 
-    private boolean processInvoice(String line) throws FileAnalyzerException {
-        Matcher invoiceMatcher = PatternCache.INVOICE_PATTERN.matcher(line);
-        if (invoiceMatcher.find()) {
+    private Invoice processInvoice(String line, boolean candidate) throws FileAnalyzerException {
+        Matcher invoiceMatcher = candidate ? PatternCache.INVOICE_PATTERN.matcher(line) : null;
+        if (invoiceMatcher != null && invoiceMatcher.find()) {
             try {
                 String amountString = invoiceMatcher.group(1).replace(",", ".");
-                double amount = Double.parseDouble(amountString);
-                statistic.recordInvoice(new Invoice(amount));
-                logger.logInfo("The INVOICE has been successfully processed: amount = " + amount + ", line = " + line);
-                return true;
+                long amount = MinorUnits.parse(amountString);
+                logger.logInfo("The INVOICE has been successfully processed: amount = %s, line = %s", MinorUnits.toBigDecimal(amount), line);
+                return Invoice.ofMinorUnits(amount);
             } catch (NumberFormatException e) {
-                logger.logError("Invalid INVOICE amount format: " + line + " (failed to convert: " + invoiceMatcher.group(1) + ")");
+                logger.logError("Invalid INVOICE amount format: %s (failed to convert: %s)", line, invoiceMatcher.group(1));
                 throw new FileAnalyzerException(FileAnalyzerException.Type.INVALID_INVOICE_AMOUNT);
             }
         }
-        logger.logWarning("Invalid string in INVOICE for processing: " + line);
-        return false;
+        logger.logWarning("Invalid string in INVOICE for processing: %s", line);
+        return null;
     }
 
-    private boolean processOrder(String line) throws FileAnalyzerException {
-        Matcher orderMatcher = PatternCache.ORDER_PATTERN.matcher(line);
-        if (orderMatcher.find()) {
+    private Order processOrder(String line, boolean candidate) throws FileAnalyzerException {
+        Matcher orderMatcher = candidate ? PatternCache.ORDER_PATTERN.matcher(line) : null;
+        if (orderMatcher != null && orderMatcher.find()) {
             try {
                 String amountString = orderMatcher.group(1).replace(",", "");
-                double amount = Double.parseDouble(amountString);
-                statistic.recordOrder(new Order(amount));
-                logger.logInfo("The ORDER has been successfully processed: amount = " + amount + ", line = " + line);
-                return true;
+                long amount = MinorUnits.parse(amountString);
+                logger.logInfo("The ORDER has been successfully processed: amount = %s, line = %s", MinorUnits.toBigDecimal(amount), line);
+                return Order.ofMinorUnits(amount);
             } catch (NumberFormatException e) {
-                logger.logError("Invalid ORDER amount format: " + line + " (failed to convert: " + orderMatcher.group(1) + ")");
+                logger.logError("Invalid ORDER amount format: %s (failed to convert: %s)", line, orderMatcher.group(1));
                 throw new FileAnalyzerException(FileAnalyzerException.Type.INVALID_ORDER_AMOUNT);
             }
         }
-        logger.logWarning("Invalid string in ORDER for processing: " + line);
-        return false;
+        logger.logWarning("Invalid string in ORDER for processing: %s", line);
+        return null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,174 @@
+package com.teachmeskills.application.services.analyzer.impl;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+/**
+ * The {@code KeywordPrefilter} class decides in a single linear pass which amount patterns
+ * can possibly match a line, so the full regular expressions only run on candidate lines.
+
+ * How it works:
+ * - An Aho-Corasick automaton is built over the keywords "bill total amount" (checks),
+ *   "total amount" (invoices) and "order total" (orders)
+ * - The automaton is compiled into a dense transition table over a small alphabet:
+ *   the 26 ASCII letters (case-insensitive), whitespace and "any other character"
+ * - Runs of whitespace are collapsed to a single space while scanning
+ * - The result is a bit mask of {@link #CHECK}, {@link #INVOICE} and {@link #ORDER}
+
+ * Correctness:
+ * - The prefilter is a superset of the regexes in {@code ParsingRegexConstants}: every line one of
+ *   them matches contains the corresponding keyword after case folding and whitespace collapsing,
+ *   so a zero mask safely rejects a line without running any regex
+
+ * Thread Safety:
+ * - The automaton is immutable after construction and may be shared by all threads
+ */
+public final class KeywordPrefilter {
+
+    public static final int CHECK = 1;
+    public static final int INVOICE = 1 << 1;
+    public static final int ORDER = 1 << 2;
+    public static final int NONE = 0;
+
+    private static final int ALL = CHECK | INVOICE | ORDER;
+    private static final int SPACE = 26;
+    private static final int OTHER = 27;
+    private static final int ALPHABET_SIZE = 28;
+    private static final int[] ASCII_SYMBOLS = createAsciiSymbols();
+
+    private static final KeywordPrefilter INSTANCE = new KeywordPrefilter(
+            new String[]{"bill total amount", "total amount", "order total"},
+            new int[]{CHECK, INVOICE, ORDER});
+
+    private final int[] transitions;
+    private final int[] outputs;
+
+    private KeywordPrefilter(String[] keywords, int[] masks) {
+        List<int[]> trie = new ArrayList<>();
+        List<Integer> trieOutputs = new ArrayList<>();
+        trie.add(newState());
+        trieOutputs.add(NONE);
+
+        for (int k = 0; k < keywords.length; k++) {
+            int state = 0;
+            for (char c : keywords[k].toCharArray()) {
+                int symbol = symbolOf(c);
+                if (trie.get(state)[symbol] < 0) {
+                    trie.get(state)[symbol] = trie.size();
+                    trie.add(newState());
+                    trieOutputs.add(NONE);
+                }
+                state = trie.get(state)[symbol];
+            }
+            trieOutputs.set(state, trieOutputs.get(state) | masks[k]);
+        }
+
+        int stateCount = trie.size();
+        this.transitions = new int[stateCount * ALPHABET_SIZE];
+        this.outputs = new int[stateCount];
+        int[] failure = new int[stateCount];
+
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+            int next = trie.get(0)[symbol];
+            if (next < 0) {
+                transitions[symbol] = 0;
+            } else {
+                transitions[symbol] = next;
+                failure[next] = 0;
+                queue.add(next);
+            }
+        }
+        outputs[0] = trieOutputs.get(0);
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            outputs[state] = trieOutputs.get(state) | outputs[failure[state]];
+            for (int symbol = 0; symbol < ALPHABET_SIZE; symbol++) {
+                int next = trie.get(state)[symbol];
+                int fallback = transitions[failure[state] * ALPHABET_SIZE + symbol];
+                if (next < 0) {
+                    transitions[state * ALPHABET_SIZE + symbol] = fallback;
+                } else {
+                    transitions[state * ALPHABET_SIZE + symbol] = next;
+                    failure[next] = fallback;
+                    queue.add(next);
+                }
+            }
+        }
+    }
+
+    public static KeywordPrefilter getInstance() {
+        return INSTANCE;
+    }
+
+    public int candidates(CharSequence line) {
+        int state = 0;
+        int mask = NONE;
+        boolean previousSpace = false;
+
+        for (int i = 0, length = line.length(); i < length && mask != ALL; i++) {
+            char c = line.charAt(i);
+            int symbol = c < 128 ? ASCII_SYMBOLS[c] : OTHER;
+            if (symbol == SPACE) {
+                if (previousSpace) {
+                    continue;
+                }
+                previousSpace = true;
+            } else {
+                previousSpace = false;
+            }
+            state = transitions[state * ALPHABET_SIZE + symbol];
+            mask |= outputs[state];
+        }
+        return mask;
+    }
+
+    public int candidates(ByteBuffer buffer, int start, int end) {
+        int state = 0;
+        int mask = NONE;
+        boolean previousSpace = false;
+
+        for (int i = start; i < end && mask != ALL; i++) {
+            int b = buffer.get(i) & 0xFF;
+            int symbol = b < 128 ? ASCII_SYMBOLS[b] : OTHER;
+            if (symbol == SPACE) {
+                if (previousSpace) {
+                    continue;
+                }
+                previousSpace = true;
+            } else {
+                previousSpace = false;
+            }
+            state = transitions[state * ALPHABET_SIZE + symbol];
+            mask |= outputs[state];
+        }
+        return mask;
+    }
+
+    private static int[] newState() {
+        int[] state = new int[ALPHABET_SIZE];
+        Arrays.fill(state, -1);
+        return state;
+    }
+
+    private static int symbolOf(char c) {
+        return c < 128 ? ASCII_SYMBOLS[c] : OTHER;
+    }
+
+    private static int[] createAsciiSymbols() {
+        int[] symbols = new int[128];
+        Arrays.fill(symbols, OTHER);
+        for (char c = 'a'; c <= 'z'; c++) {
+            symbols[c] = c - 'a';
+            symbols[Character.toUpperCase(c)] = c - 'a';
+        }
+        for (char c : new char[]{' ', '\t', '\n', '\u000B', '\f', '\r'}) {
+            symbols[c] = SPACE;
+        }
+        return symbols;
+    }
+}
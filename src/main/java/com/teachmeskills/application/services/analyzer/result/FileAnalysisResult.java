@@ -0,0 +1,44 @@
+package com.teachmeskills.application.services.analyzer.result;
+
+import com.teachmeskills.application.exception.FileAnalyzerException;
+import com.teachmeskills.application.model.IDocument;
+
+import java.util.List;
+/**
+ * The {@code FileAnalysisResult} record describes the outcome of a single-pass file analysis.
+
+ * Contents:
+ * - {@code fileName}: The name of the analyzed file.
+ * - {@code valid}: Whether the file contained at least one recognized document line.
+ * - {@code documents}: The checks, invoices and orders extracted from the file, in file order.
+ * - {@code lineNumbers}: The line (starting at 1) each document was read from, parallel to {@code documents}.
+ * - {@code rejectionType}: The reason the file was rejected, or {@code null} for a valid file.
+ * - {@code rejectionMessage}: A human-readable description of the rejection, or {@code null}.
+
+ * Usage Notes:
+ * - Instances are created through the {@link #accepted} and {@link #rejected} factory methods.
+ * - The list of documents is immutable and is empty for rejected files.
+ */
+public record FileAnalysisResult(String fileName,
+                                 boolean valid,
+                                 List<IDocument> documents,
+                                 List<Integer> lineNumbers,
+                                 FileAnalyzerException.Type rejectionType,
+                                 String rejectionMessage) {
+
+    public FileAnalysisResult {
+        documents = List.copyOf(documents);
+        lineNumbers = List.copyOf(lineNumbers);
+        if (lineNumbers.size() != documents.size()) {
+            throw new IllegalArgumentException("Every document needs a line number");
+        }
+    }
+
+    public static FileAnalysisResult accepted(String fileName, List<IDocument> documents, List<Integer> lineNumbers) {
+        return new FileAnalysisResult(fileName, true, documents, lineNumbers, null, null);
+    }
+
+    public static FileAnalysisResult rejected(String fileName, FileAnalyzerException e) {
+        return new FileAnalysisResult(fileName, false, List.of(), List.of(), e.getType(), e.getMessage());
+    }
+}
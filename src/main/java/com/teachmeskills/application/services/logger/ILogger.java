@@ -1,4 +1,6 @@
 package com.teachmeskills.application.services.logger;
+
+import java.util.function.Supplier;
 /**
  * The ILogger interface provides core methods for logging messages at various levels,
  * including informational, warning, and error messages. Implementations of this interface
@@ -9,6 +11,20 @@ package com.teachmeskills.application.services.logger;
  * - logInfo(String message): Logs an informational message.
  * - logError(String message): Logs an error message.
  * - logWarning(String message): Logs a warning message.
+ * - isEnabled(LogLevel level): Tells whether messages of the given level are written at all.
+ * - log(LogLevel level, String format, Object... args): Logs a parameterized message.
+ * - logInfo/logWarning/logError(String format, Object... args): Parameterized variants; the
+ *   format follows {@link String#format(String, Object...)} and is applied only if the level is enabled.
+ * - logInfo/logWarning/logError(Supplier<String> messageSupplier): Deferred variants; the supplier
+ *   is called only if the level is enabled.
+ * - forSource(Class<?> source): Returns a logger for the given class, which may apply its own level threshold.
+
+ * Usage Notes:
+ * - The parameterized and deferred variants cost nothing but a level check when the level is disabled,
+ *   so they should be preferred on hot paths.
+ * - Implementations may format parameterized messages later on another thread, so arguments
+ *   should be immutable values (strings, numbers, file names).
+ * - The default implementations format eagerly and delegate to the three basic methods.
  */
 public interface ILogger {
 
@@ -17,4 +33,54 @@ public interface ILogger {
     void logError(String message);
 
     void logWarning(String message);
-}
\ No newline at end of file
+
+    default boolean isEnabled(LogLevel level) {
+        return true;
+    }
+
+    default ILogger forSource(Class<?> source) {
+        return this;
+    }
+
+    default void log(LogLevel level, String format, Object... args) {
+        if (!isEnabled(level)) {
+            return;
+        }
+        String message = args == null || args.length == 0 ? format : String.format(format, args);
+        switch (level) {
+            case INFO -> logInfo(message);
+            case WARNING -> logWarning(message);
+            case ERROR -> logError(message);
+        }
+    }
+
+    default void logInfo(String format, Object... args) {
+        log(LogLevel.INFO, format, args);
+    }
+
+    default void logWarning(String format, Object... args) {
+        log(LogLevel.WARNING, format, args);
+    }
+
+    default void logError(String format, Object... args) {
+        log(LogLevel.ERROR, format, args);
+    }
+
+    default void logInfo(Supplier<String> messageSupplier) {
+        if (isEnabled(LogLevel.INFO)) {
+            logInfo(messageSupplier.get());
+        }
+    }
+
+    default void logWarning(Supplier<String> messageSupplier) {
+        if (isEnabled(LogLevel.WARNING)) {
+            logWarning(messageSupplier.get());
+        }
+    }
+
+    default void logError(Supplier<String> messageSupplier) {
+        if (isEnabled(LogLevel.ERROR)) {
+            logError(messageSupplier.get());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.teachmeskills.application.services.logger;
+
+import java.util.Locale;
+/**
+ * Enumerates the levels supported by {@link ILogger}, ordered by increasing severity.
+
+ * Levels:
+ * - INFO: General information about application flow.
+ * - WARNING: Indications of potential issues or unexpected conditions.
+ * - ERROR: Critical errors and exceptions.
+
+ * Usage Notes:
+ * - A logger configured with a minimum level drops every message of a lower level;
+ *   {@link #isAtLeast(LogLevel)} compares two levels.
+ */
+public enum LogLevel {
+
+    INFO("Info"),
+    WARNING("Warning"),
+    ERROR("Error");
+
+    private final String label;
+
+    LogLevel(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public boolean isAtLeast(LogLevel threshold) {
+        return ordinal() >= threshold.ordinal();
+    }
+
+    public static LogLevel fromName(String name, LogLevel defaultLevel) {
+        if (name == null || name.isBlank()) {
+            return defaultLevel;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown log level: " + name + ". The default value is used: " + defaultLevel);
+            return defaultLevel;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.teachmeskills.application.services.logger.config;
+
+import java.util.Locale;
+/**
+ * Enumerates how {@code LoggerService} determines the "Location:" of a log call.
+
+ * Modes:
+ * - {@code OFF}: No caller location is captured; messages are written without the "Location:" suffix.
+ * - {@code FRAME}: Only the frames up to the first caller outside the logger are visited with a
+ *   {@link StackWalker}; no full stack trace is materialized.
+ * - {@code FULL}: The complete stack trace of the calling thread is captured; error messages without
+ *   an exception additionally carry the caller's full stack trace.
+ */
+public enum CallerLocationMode {
+
+    OFF,
+    FRAME,
+    FULL;
+
+    public static CallerLocationMode fromName(String name, CallerLocationMode defaultMode) {
+        if (name == null || name.isBlank()) {
+            return defaultMode;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown caller location mode: " + name + ". The default value is used: " + defaultMode);
+            return defaultMode;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.teachmeskills.application.services.logger.config;
+
+import java.util.Locale;
+/**
+ * Enumerates the line formats {@code LoggerService} writes to the log files.
+
+ * Formats:
+ * - {@code TEXT}: One human-readable line per entry, built from the logger's format pattern
+ *   (timestamp, level, message and location); stack traces follow on separate lines.
+ * - {@code JSON}: One JSON object per line with the fields {@code time}, {@code epochMillis}, {@code level},
+ *   {@code thread}, {@code location}, {@code message} and, for errors, {@code stackTrace}; log shippers
+ *   can ingest it without parsing the text.
+ */
+public enum LogOutputFormat {
+
+    TEXT,
+    JSON;
+
+    public static LogOutputFormat fromName(String name, LogOutputFormat defaultFormat) {
+        if (name == null || name.isBlank()) {
+            return defaultFormat;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown log output format: " + name + ". The default value is used: " + defaultFormat);
+            return defaultFormat;
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.teachmeskills.application.services.logger.config;
+
+import com.teachmeskills.application.services.logger.LogLevel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+/**
+ * The {@code LoggerConfiguration} record groups the settings of {@code LoggerService}.
+
+ * Options:
+ * - {@code queueCapacity}: Maximum number of log entries waiting for the writer thread; the ring buffer
+ *   is preallocated with this capacity rounded up to a power of two.
+ * - {@code batchSize}: Maximum number of entries the writer takes from the queue at once.
+ * - {@code flushIntervalMillis}: Longest time written entries may stay buffered before they reach the files.
+ * - {@code flushThresholdBytes}: Size of the write buffer of each log file; a full buffer is flushed at once.
+ * - {@code callerLocationMode}: How the "Location:" of a log call is captured ({@link CallerLocationMode}).
+ * - {@code level}: Minimum level that is written; messages of lower levels are discarded at the call site.
+ * - {@code sourceLevels}: Minimum levels per package or class prefix, configured as
+ *   {@code logger.level.<prefix>=<LEVEL>}; the longest matching prefix wins over {@code level}.
+ * - {@code rateLimitPerWindow}: How many times the same parameterized message may be logged per window;
+ *   {@code 0} disables rate limiting.
+ * - {@code rateLimitWindowMillis}: Length of the rate limiting window.
+ * - {@code waitStrategy}: How the logger thread waits for new entries ({@link WaitStrategy}).
+ * - {@code overflowPolicy}: What happens to log calls while the ring buffer is full ({@link OverflowPolicy}).
+ * - {@code overflowBlockTimeoutMillis}: Longest time a log call waits for a free slot before its entry is dropped.
+ * - {@code overflowSampleRate}: With {@link OverflowPolicy#SAMPLE}, one of this many entries is kept under pressure.
+ * - {@code dropReportIntervalMillis}: How often the counts of dropped entries are written to the warning log.
+ * - {@code rotationMaxBytes}: Size at which a log file is rotated; {@code 0} disables size-based rotation.
+ * - {@code rotationDaily}: Whether a log file is also rotated when the day of its first entry has ended.
+ * - {@code rotationCompress}: Whether rotated segments are compressed with gzip in the background.
+ * - {@code rotationMaxSegments}: How many rotated segments are kept per log file; {@code 0} keeps all of them.
+ * - {@code outputFormat}: Whether entries are written as text lines or as JSON lines ({@link LogOutputFormat}).
+ * - {@code indexIntervalBytes}: Distance between two records of the sparse time index written next to each
+ *   log file; {@code 0} disables the index.
+ * - {@code metricsIntervalMillis}: How often the logger writes a stats line to the info log; {@code 0} disables it.
+ * - {@code metricsJmx}: Whether the logger metrics are published as a JMX MBean.
+
+ * Loading:
+ * - {@link #load()} reads the {@code logger.*} keys of {@code financial-analyzer.properties} from the classpath;
+ *   an environment variable with the upper-case name ({@code logger.batchSize} -> {@code LOGGER_BATCH_SIZE})
+ *   takes precedence
+ * - The properties are read directly instead of through {@code ConfigurationLoader}, because the logger
+ *   is created before the configuration, which itself logs through it
+ * - Missing, malformed or out-of-range values fall back to the defaults
+ */
+public record LoggerConfiguration(int queueCapacity,
+                                  int batchSize,
+                                  long flushIntervalMillis,
+                                  int flushThresholdBytes,
+                                  CallerLocationMode callerLocationMode,
+                                  LogLevel level,
+                                  Map<String, LogLevel> sourceLevels,
+                                  int rateLimitPerWindow,
+                                  long rateLimitWindowMillis,
+                                  WaitStrategy waitStrategy,
+                                  OverflowPolicy overflowPolicy,
+                                  long overflowBlockTimeoutMillis,
+                                  int overflowSampleRate,
+                                  long dropReportIntervalMillis,
+                                  long rotationMaxBytes,
+                                  boolean rotationDaily,
+                                  boolean rotationCompress,
+                                  int rotationMaxSegments,
+                                  LogOutputFormat outputFormat,
+                                  long indexIntervalBytes,
+                                  long metricsIntervalMillis,
+                                  boolean metricsJmx) {
+
+    private static final String PROPERTIES_FILE = "financial-analyzer.properties";
+
+    public LoggerConfiguration {
+        queueCapacity = Math.max(1, queueCapacity);
+        batchSize = Math.max(1, batchSize);
+        flushIntervalMillis = Math.max(1, flushIntervalMillis);
+        flushThresholdBytes = Math.max(1024, flushThresholdBytes);
+        callerLocationMode = callerLocationMode == null ? CallerLocationMode.FRAME : callerLocationMode;
+        level = level == null ? LogLevel.INFO : level;
+        sourceLevels = sourceLevels == null ? Map.of() : Map.copyOf(sourceLevels);
+        rateLimitPerWindow = Math.max(0, rateLimitPerWindow);
+        rateLimitWindowMillis = Math.max(1, rateLimitWindowMillis);
+        waitStrategy = waitStrategy == null ? WaitStrategy.BLOCKING : waitStrategy;
+        overflowPolicy = overflowPolicy == null ? OverflowPolicy.DROP_LOWEST_LEVEL : overflowPolicy;
+        overflowBlockTimeoutMillis = Math.max(0, overflowBlockTimeoutMillis);
+        overflowSampleRate = Math.max(1, overflowSampleRate);
+        dropReportIntervalMillis = Math.max(1, dropReportIntervalMillis);
+        rotationMaxBytes = Math.max(0, rotationMaxBytes);
+        rotationMaxSegments = Math.max(0, rotationMaxSegments);
+        outputFormat = outputFormat == null ? LogOutputFormat.TEXT : outputFormat;
+        indexIntervalBytes = Math.max(0, indexIntervalBytes);
+        metricsIntervalMillis = Math.max(0, metricsIntervalMillis);
+    }
+
+    public static LoggerConfiguration defaults() {
+        return new LoggerConfiguration(16384, 1024, 200, 64 * 1024, CallerLocationMode.FRAME, LogLevel.INFO,
+                Map.of(), 50, 10000, WaitStrategy.BLOCKING, OverflowPolicy.DROP_LOWEST_LEVEL, 100, 10, 10000,
+                64L * 1024 * 1024, true, true, 30, LogOutputFormat.TEXT, 64 * 1024, 60000, true);
+    }
+
+    public static LoggerConfiguration load() {
+        Properties properties = loadProperties();
+        LoggerConfiguration defaults = defaults();
+
+        return new LoggerConfiguration(
+                getInt(properties, "logger.queueCapacity", defaults.queueCapacity(), 16, 1 << 22),
+                getInt(properties, "logger.batchSize", defaults.batchSize(), 1, 65536),
+                getInt(properties, "logger.flushIntervalMs", (int) defaults.flushIntervalMillis(), 1, 60000),
+                getInt(properties, "logger.flushThresholdBytes", defaults.flushThresholdBytes(), 1024, 16 * 1024 * 1024),
+                CallerLocationMode.fromName(getValue(properties, "logger.callerLocation"), defaults.callerLocationMode()),
+                LogLevel.fromName(getValue(properties, "logger.level"), defaults.level()),
+                loadSourceLevels(properties),
+                getInt(properties, "logger.rateLimit.maxPerWindow", defaults.rateLimitPerWindow(), 0, 1_000_000),
+                getInt(properties, "logger.rateLimit.windowMs", (int) defaults.rateLimitWindowMillis(), 1, 3_600_000),
+                WaitStrategy.fromName(getValue(properties, "logger.waitStrategy"), defaults.waitStrategy()),
+                OverflowPolicy.fromName(getValue(properties, "logger.overflow.policy"), defaults.overflowPolicy()),
+                getInt(properties, "logger.overflow.blockTimeoutMs", (int) defaults.overflowBlockTimeoutMillis(), 0, 60000),
+                getInt(properties, "logger.overflow.sampleRate", defaults.overflowSampleRate(), 1, 1_000_000),
+                getInt(properties, "logger.overflow.reportIntervalMs", (int) defaults.dropReportIntervalMillis(), 100, 3_600_000),
+                getInt(properties, "logger.rotation.maxSizeMb", (int) (defaults.rotationMaxBytes() >> 20), 0, 1 << 20) * 1024L * 1024,
+                getBoolean(properties, "logger.rotation.daily", defaults.rotationDaily()),
+                getBoolean(properties, "logger.rotation.compress", defaults.rotationCompress()),
+                getInt(properties, "logger.rotation.maxSegments", defaults.rotationMaxSegments(), 0, 100_000),
+                LogOutputFormat.fromName(getValue(properties, "logger.format"), defaults.outputFormat()),
+                getInt(properties, "logger.index.intervalBytes", (int) defaults.indexIntervalBytes(), 0, 64 * 1024 * 1024),
+                getInt(properties, "logger.metrics.intervalMs", (int) defaults.metricsIntervalMillis(), 0, 86_400_000),
+                getBoolean(properties, "logger.metrics.jmx", defaults.metricsJmx()));
+    }
+
+    public LogLevel levelFor(String className) {
+        String bestPrefix = null;
+        for (String prefix : sourceLevels.keySet()) {
+            boolean matches = className.equals(prefix) || className.startsWith(prefix + ".");
+            if (matches && (bestPrefix == null || prefix.length() > bestPrefix.length())) {
+                bestPrefix = prefix;
+            }
+        }
+        return bestPrefix == null ? level : sourceLevels.get(bestPrefix);
+    }
+
+    private static Map<String, LogLevel> loadSourceLevels(Properties properties) {
+        String keyPrefix = "logger.level.";
+        Map<String, LogLevel> sourceLevels = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(keyPrefix) && key.length() > keyPrefix.length()) {
+                LogLevel sourceLevel = LogLevel.fromName(properties.getProperty(key), null);
+                if (sourceLevel != null) {
+                    sourceLevels.put(key.substring(keyPrefix.length()), sourceLevel);
+                }
+            }
+        }
+        return sourceLevels;
+    }
+
+    private static Properties loadProperties() {
+        Properties properties = new Properties();
+        try (InputStream input = LoggerConfiguration.class.getClassLoader().getResourceAsStream(PROPERTIES_FILE)) {
+            if (input != null) {
+                properties.load(input);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to read the logger configuration: " + e.getMessage());
+        }
+        return properties;
+    }
+
+    private static String getValue(Properties properties, String key) {
+        return Optional.ofNullable(System.getenv(toEnvironmentName(key)))
+                .orElseGet(() -> properties.getProperty(key));
+    }
+
+    private static int getInt(Properties properties, String key, int defaultValue, int minValue, int maxValue) {
+        String value = getValue(properties, key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed < minValue || parsed > maxValue) {
+                System.err.println("The value is out of the acceptable range for " + key + ". The default value is used: " + defaultValue);
+                return defaultValue;
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid integer for key: " + key + ". The default value is used: " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    private static boolean getBoolean(Properties properties, String key, boolean defaultValue) {
+        String value = getValue(properties, key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value.trim());
+    }
+
+    private static String toEnvironmentName(String key) {
+        return key.replaceAll("([a-z])([A-Z])", "$1_$2").replace('.', '_').toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,38 @@
+package com.teachmeskills.application.services.logger.config;
+
+import java.util.Locale;
+/**
+ * Enumerates what {@code LoggerService} does with a log call when its ring buffer is (nearly) full.
+
+ * Policies:
+ * - {@code BLOCK}: The calling thread waits for a free slot for at most the configured block timeout;
+ *   the entry is dropped only if the timeout elapses.
+ * - {@code DROP_LOWEST_LEVEL}: Info entries are dropped once the buffer is three quarters full and warnings
+ *   once it is nearly full, so the remaining capacity is kept for errors; errors wait like {@code BLOCK}.
+ * - {@code DROP_OLDEST}: The logger thread discards the oldest pending entries to make room for new ones;
+ *   the calling thread waits for the freed slot for at most the block timeout.
+ * - {@code SAMPLE}: Once the buffer is three quarters full, only every n-th info or warning entry is kept;
+ *   errors are never sampled and wait like {@code BLOCK}.
+
+ * Usage Notes:
+ * - Every dropped entry is counted per level; the logger writes the counts to the warning log periodically.
+ */
+public enum OverflowPolicy {
+
+    BLOCK,
+    DROP_LOWEST_LEVEL,
+    DROP_OLDEST,
+    SAMPLE;
+
+    public static OverflowPolicy fromName(String name, OverflowPolicy defaultPolicy) {
+        if (name == null || name.isBlank()) {
+            return defaultPolicy;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown overflow policy: " + name + ". The default value is used: " + defaultPolicy);
+            return defaultPolicy;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.teachmeskills.application.services.logger.config;
+
+import java.util.Locale;
+/**
+ * Enumerates how the logger thread waits for new entries when the ring buffer is empty.
+
+ * Strategies:
+ * - {@code BUSY_SPIN}: Spins on the buffer; lowest latency, keeps one core fully busy.
+ * - {@code YIELDING}: Spins briefly, then yields the processor between checks.
+ * - {@code SLEEPING}: Spins and yields briefly, then sleeps for short periods; low latency at modest CPU cost.
+ * - {@code BLOCKING}: Parks the logger thread until a producer signals a new entry (or the flush
+ *   interval elapses); lowest CPU use while idle.
+
+ * Usage Notes:
+ * - Producers never wait for the logger thread with any of the strategies; only the logger thread waits.
+ */
+public enum WaitStrategy {
+
+    BUSY_SPIN,
+    YIELDING,
+    SLEEPING,
+    BLOCKING;
+
+    public static WaitStrategy fromName(String name, WaitStrategy defaultStrategy) {
+        if (name == null || name.isBlank()) {
+            return defaultStrategy;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unknown wait strategy: " + name + ". The default value is used: " + defaultStrategy);
+            return defaultStrategy;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.teachmeskills.application.services.logger.impl;
+
+import com.teachmeskills.application.services.logger.config.CallerLocationMode;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+/**
+ * The {@code CallerLocator} class finds the application frame that issued a log call.
+
+ * Key Features:
+ * - Frames of the logger itself (every class of the {@code services.logger} package and of the JDK
+ *   stack-walking machinery) are skipped, so the location is correct whichever logger method was used
+ * - In {@link CallerLocationMode#FRAME} mode a {@link StackWalker} stops at the first caller frame;
+ *   only the few frames above it are visited and nothing else is materialized
+ * - In {@link CallerLocationMode#FULL} mode the complete stack trace is captured once by
+ *   {@link #captureCallerFrames()}; the location is its first frame, and the same frames can be
+ *   attached to error messages and formatted later by {@link #formatStack(StackTraceElement[])}
+ * - In {@link CallerLocationMode#OFF} mode nothing is captured at all
+
+ * Thread Safety:
+ * - Stateless apart from the configured mode; may be used by any number of threads
+ */
+public class CallerLocator {
+
+    private static final String LOGGER_PACKAGE = "com.teachmeskills.application.services.logger.";
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final CallerLocationMode mode;
+
+    public CallerLocator(CallerLocationMode mode) {
+        this.mode = mode;
+    }
+
+    public CallerLocationMode getMode() {
+        return mode;
+    }
+
+    public StackTraceElement locate() {
+        return switch (mode) {
+            case OFF -> null;
+            case FRAME -> STACK_WALKER.walk(frames -> frames
+                    .filter(frame -> isCallerFrame(frame.getClassName()))
+                    .findFirst()
+                    .map(StackWalker.StackFrame::toStackTraceElement)
+                    .orElse(null));
+            case FULL -> locate(captureCallerFrames());
+        };
+    }
+
+    public StackTraceElement locate(StackTraceElement[] callerFrames) {
+        return callerFrames != null && callerFrames.length > 0 ? callerFrames[0] : null;
+    }
+
+    public StackTraceElement[] captureCallerFrames() {
+        if (mode != CallerLocationMode.FULL) {
+            return null;
+        }
+        return Arrays.stream(Thread.currentThread().getStackTrace())
+                .filter(element -> isCallerFrame(element.getClassName()))
+                .toArray(StackTraceElement[]::new);
+    }
+
+    public static String formatStack(StackTraceElement[] callerFrames) {
+        if (callerFrames == null) {
+            return null;
+        }
+        return Arrays.stream(callerFrames)
+                .map(element -> "\tat " + element)
+                .collect(Collectors.joining(System.lineSeparator()));
+    }
+
+    public static String format(StackTraceElement caller) {
+        if (caller == null) {
+            return "Unknown location";
+        }
+        return caller.getClassName() + "." + caller.getMethodName() + " (Line: " + caller.getLineNumber() + ")";
+    }
+
+    private static boolean isCallerFrame(String className) {
+        return !className.startsWith(LOGGER_PACKAGE) && !className.equals(Thread.class.getName());
+    }
+}
@@ -0,0 +1,46 @@
+package com.teachmeskills.application.services.logger.impl;
+
+import com.teachmeskills.application.services.logger.LogLevel;
+
+import java.util.concurrent.atomic.LongAdder;
+/**
+ * The {@code LogDropCounters} class counts the log entries dropped by the overflow policy, per level.
+
+ * Key Features:
+ * - One {@link LongAdder} per level, so concurrent producers dropping entries do not contend on one counter
+ * - {@link #drainPeriod()} returns the counts since the previous call, for the periodic report
+ * - {@link #getTotal(LogLevel)} returns the counts since the logger was created
+
+ * Thread Safety:
+ * - {@link #increment(LogLevel)} and {@link #getTotal(LogLevel)} may be called by any number of threads
+ * - {@link #drainPeriod()} must only be called by the logger thread
+ */
+public class LogDropCounters {
+
+    private final LongAdder[] counters = new LongAdder[LogLevel.values().length];
+    private final long[] reported = new long[LogLevel.values().length];
+
+    public LogDropCounters() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+    }
+
+    public void increment(LogLevel level) {
+        counters[level.ordinal()].increment();
+    }
+
+    public long getTotal(LogLevel level) {
+        return counters[level.ordinal()].sum();
+    }
+
+    public long[] drainPeriod() {
+        long[] period = new long[counters.length];
+        for (int i = 0; i < counters.length; i++) {
+            long total = counters[i].sum();
+            period[i] = total - reported[i];
+            reported[i] = total;
+        }
+        return period;
+    }
+}
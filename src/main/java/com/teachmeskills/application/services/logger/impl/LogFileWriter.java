@@ -0,0 +1,203 @@
+package com.teachmeskills.application.services.logger.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+/**
+ * The {@code LogFileWriter} class writes log lines into a set of log files through channels
+ * that stay open for the lifetime of the writer.
+
+ * Key Features:
+ * - One {@link FileChannel} per log file, opened on first use in append mode instead of
+ *   opening and closing the file for every message
+ * - Lines are encoded as UTF-8 straight into a direct buffer per file; the buffer is written
+ *   to the channel when it is full or when {@link #flush()} is called
+ * - A channel that fails is closed and reopened on the next write, so a temporary error
+ *   (for example, a locked file) does not disable logging for the rest of the run
+ * - Before a line is added, the {@link LogRotator} is asked whether the file has reached its maximum
+ *   size or its day has ended; if so, the buffered lines are written, the file is rotated and the line
+ *   goes into a new file
+ * - The timestamp and offset of a line are recorded in the file's sparse {@link LogSegmentIndex},
+ *   which is rotated together with the file
+
+ * Thread Safety:
+ * - Not thread-safe; the writer is owned by the logger thread of {@code LoggerService}
+ */
+public class LogFileWriter implements AutoCloseable {
+
+    private static final char[] LINE_SEPARATOR = System.lineSeparator().toCharArray();
+
+    private final Map<String, LogChannel> channels = new HashMap<>();
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final int bufferSize;
+    private final LogRotator rotator;
+    private final long indexIntervalBytes;
+
+    private static final class LogChannel {
+        private final Path path;
+        private final ByteBuffer buffer;
+        private final LogSegmentIndex index;
+        private FileChannel channel;
+        private long size;
+        private long rotationBaseBytes;
+        private long segmentStartMillis;
+        private long segmentEndMillis;
+
+        private LogChannel(Path path, int bufferSize, long indexIntervalBytes) {
+            this.path = path;
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+            this.index = new LogSegmentIndex(indexIntervalBytes);
+        }
+    }
+
+    public LogFileWriter(int bufferSize, LogRotator rotator, long indexIntervalBytes) {
+        this.bufferSize = bufferSize;
+        this.rotator = rotator;
+        this.indexIntervalBytes = indexIntervalBytes;
+    }
+
+    public long writeLine(String logPath, long timestampMillis, String line) {
+        LogChannel logChannel = channels.computeIfAbsent(logPath, this::createChannel);
+        try {
+            if (logChannel.channel == null) {
+                openChannel(logChannel);
+            }
+            long offset = logChannel.size + logChannel.buffer.position();
+            if (rotator.isEnabled()
+                    && rotator.shouldRotate(offset - logChannel.rotationBaseBytes, logChannel.segmentEndMillis, timestampMillis)) {
+                drain(logChannel);
+                rotate(logChannel, timestampMillis);
+                offset = logChannel.size;
+            }
+            logChannel.index.record(timestampMillis, offset);
+            encode(logChannel, CharBuffer.wrap(line));
+            encode(logChannel, CharBuffer.wrap(LINE_SEPARATOR));
+            return logChannel.size + logChannel.buffer.position() - offset;
+        } catch (IOException e) {
+            handleFailure(logChannel, e);
+            return 0;
+        }
+    }
+
+    private LogChannel createChannel(String logPath) {
+        LogChannel logChannel = new LogChannel(Paths.get(logPath), bufferSize, indexIntervalBytes);
+        rotator.recoverPendingSegments(logChannel.path);
+        return logChannel;
+    }
+
+    public void flush() {
+        for (LogChannel logChannel : channels.values()) {
+            try {
+                drain(logChannel);
+                logChannel.index.flush();
+            } catch (IOException e) {
+                handleFailure(logChannel, e);
+            }
+        }
+    }
+
+    private void encode(LogChannel logChannel, CharBuffer chars) throws IOException {
+        encoder.reset();
+        while (true) {
+            CoderResult result = encoder.encode(chars, logChannel.buffer, true);
+            if (result.isOverflow()) {
+                drain(logChannel);
+            } else {
+                break;
+            }
+        }
+        while (encoder.flush(logChannel.buffer).isOverflow()) {
+            drain(logChannel);
+        }
+    }
+
+    private void drain(LogChannel logChannel) throws IOException {
+        ByteBuffer buffer = logChannel.buffer;
+        if (buffer.position() == 0) {
+            return;
+        }
+        if (logChannel.channel == null) {
+            openChannel(logChannel);
+        }
+
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                logChannel.size += logChannel.channel.write(buffer);
+            }
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private void rotate(LogChannel logChannel, long nowMillis) throws IOException {
+        closeChannel(logChannel);
+        try {
+            rotator.rotate(logChannel.path, logChannel.segmentStartMillis);
+            openChannel(logChannel);
+        } catch (IOException e) {
+            System.err.println("Failed to rotate the log file: " + logChannel.path + " - " + e.getMessage());
+            openChannel(logChannel);
+            logChannel.rotationBaseBytes = logChannel.size;
+            logChannel.segmentStartMillis = nowMillis;
+            logChannel.segmentEndMillis = rotator.segmentEndMillis(nowMillis);
+        }
+    }
+
+    private void openChannel(LogChannel logChannel) throws IOException {
+        logChannel.channel = FileChannel.open(logChannel.path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        logChannel.size = logChannel.channel.size();
+        logChannel.rotationBaseBytes = 0;
+        logChannel.segmentStartMillis = logChannel.size > 0
+                ? Files.getLastModifiedTime(logChannel.path).toMillis()
+                : System.currentTimeMillis();
+        logChannel.segmentEndMillis = rotator.segmentEndMillis(logChannel.segmentStartMillis);
+        logChannel.index.open(logChannel.path, logChannel.size);
+    }
+
+    private void handleFailure(LogChannel logChannel, IOException e) {
+        System.err.println("Log writing error: " + logChannel.path + " - " + e.getMessage());
+        closeChannel(logChannel);
+    }
+
+    private void closeChannel(LogChannel logChannel) {
+        try {
+            logChannel.index.seal(logChannel.size);
+        } catch (IOException e) {
+            System.err.println("Failed to seal the log index: " + logChannel.path + " - " + e.getMessage());
+        }
+        logChannel.index.close();
+        if (logChannel.channel == null) {
+            return;
+        }
+        try {
+            logChannel.channel.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close the log file: " + logChannel.path + " - " + e.getMessage());
+        } finally {
+            logChannel.channel = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        channels.values().forEach(this::closeChannel);
+        channels.clear();
+        rotator.close();
+    }
+}
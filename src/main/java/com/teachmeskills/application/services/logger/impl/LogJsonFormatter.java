@@ -0,0 +1,69 @@
+package com.teachmeskills.application.services.logger.impl;
+
+import com.teachmeskills.application.services.logger.LogLevel;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+/**
+ * The {@code LogJsonFormatter} class renders log entries as single-line JSON objects (JSON lines).
+
+ * Key Features:
+ * - Fields: {@code time} (local time with milliseconds), {@code epochMillis}, {@code level}, {@code thread},
+ *   {@code location} (omitted when not captured), {@code message} and {@code stackTrace} (only when present)
+ * - The second-resolution part of {@code time} comes from a {@link LogTimestampCache}; only the
+ *   milliseconds are appended per entry
+ * - Strings are escaped as required by JSON, so multi-line messages and stack traces stay on one line
+ * - One {@link StringBuilder} is reused for every entry
+
+ * Thread Safety:
+ * - Not thread-safe; the formatter is owned by the logger thread of {@code LoggerService}
+ */
+public class LogJsonFormatter {
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final LogTimestampCache timestampCache =
+            new LogTimestampCache(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss"), ZoneId.systemDefault());
+    private final StringBuilder line = new StringBuilder(256);
+
+    public String format(LogLevel level, long epochMillis, String thread, String location, String message,
+                         String stackTrace) {
+        line.setLength(0);
+        int millis = (int) Math.floorMod(epochMillis, 1000L);
+
+        line.append("{\"time\":\"").append(timestampCache.format(epochMillis)).append('.')
+                .append((char) ('0' + millis / 100)).append((char) ('0' + millis / 10 % 10)).append((char) ('0' + millis % 10))
+                .append("\",\"epochMillis\":").append(epochMillis)
+                .append(",\"level\":\"").append(level.name()).append('"');
+        appendField("thread", thread);
+        appendField("location", location);
+        appendField("message", message);
+        appendField("stackTrace", stackTrace);
+        return line.append('}').toString();
+    }
+
+    private void appendField(String name, String value) {
+        if (value == null) {
+            return;
+        }
+        line.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        line.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+                    } else {
+                        line.append(c);
+                    }
+                }
+            }
+        }
+        line.append('"');
+    }
+}
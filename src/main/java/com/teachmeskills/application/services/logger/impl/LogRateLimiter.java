@@ -0,0 +1,106 @@
+package com.teachmeskills.application.services.logger.impl;
+
+import com.teachmeskills.application.services.logger.LogLevel;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+/**
+ * The {@code LogRateLimiter} class limits how often the same parameterized message may be logged.
+
+ * Key Features:
+ * - Messages are grouped by their format string, which identifies the call site
+ *   (for example, {@code "Invalid string in CHECK for processing: %s"})
+ * - Each format may pass at most {@code maxPerWindow} times per fixed time window; further
+ *   messages are counted as suppressed instead of being queued
+ * - Suppressed counts are reported by {@link #collectSuppressed(long, boolean, Consumer)} as one
+ *   summary per format once its window has ended, so the log still shows how much was dropped
+
+ * Usage Notes:
+ * - A {@code maxPerWindow} of {@code 0} disables rate limiting
+ * - Only parameterized messages are limited: their format strings are code literals, so the
+ *   number of tracked formats stays small, whereas plain messages are usually unique
+
+ * Thread Safety:
+ * - {@link #tryAcquire(LogLevel, String, long)} may be called concurrently by any number of threads;
+ *   each format is guarded by its own monitor
+ */
+public class LogRateLimiter {
+
+    public record Suppression(LogLevel level, String format, long suppressedCount) {
+    }
+
+    private static final class Window {
+        private final LogLevel level;
+        private long windowStart;
+        private int passed;
+        private long suppressed;
+
+        private Window(LogLevel level, long windowStart) {
+            this.level = level;
+            this.windowStart = windowStart;
+        }
+    }
+
+    private final int maxPerWindow;
+    private final long windowMillis;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    public LogRateLimiter(int maxPerWindow, long windowMillis) {
+        this.maxPerWindow = Math.max(0, maxPerWindow);
+        this.windowMillis = Math.max(1, windowMillis);
+    }
+
+    public boolean isEnabled() {
+        return maxPerWindow > 0;
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    public boolean tryAcquire(LogLevel level, String format, long nowMillis) {
+        if (!isEnabled()) {
+            return true;
+        }
+
+        Window window = windows.get(format);
+        if (window == null) {
+            window = windows.computeIfAbsent(format, key -> new Window(level, nowMillis));
+        }
+
+        synchronized (window) {
+            if (nowMillis - window.windowStart >= windowMillis && window.suppressed == 0) {
+                window.windowStart = nowMillis;
+                window.passed = 0;
+            }
+            if (window.passed < maxPerWindow) {
+                window.passed++;
+                return true;
+            }
+            window.suppressed++;
+            return false;
+        }
+    }
+
+    public void collectSuppressed(long nowMillis, boolean force, Consumer<Suppression> consumer) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        for (Map.Entry<String, Window> entry : windows.entrySet()) {
+            Window window = entry.getValue();
+            long suppressed;
+            synchronized (window) {
+                if (window.suppressed == 0 || (!force && nowMillis - window.windowStart < windowMillis)) {
+                    continue;
+                }
+                suppressed = window.suppressed;
+                window.suppressed = 0;
+                window.windowStart = nowMillis;
+                window.passed = 0;
+            }
+            consumer.accept(new Suppression(window.level, entry.getKey(), suppressed));
+        }
+    }
+}
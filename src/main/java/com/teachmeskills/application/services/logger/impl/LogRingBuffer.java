@@ -0,0 +1,155 @@
+package com.teachmeskills.application.services.logger.impl;
+
+import com.teachmeskills.application.services.logger.config.WaitStrategy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+/**
+ * The {@code LogRingBuffer} class is a preallocated, lock-free ring buffer with many producers
+ * and a single consumer, used by {@code LoggerService} in place of a blocking queue.
+
+ * Key Features:
+ * - All slots are created up front and reused, so publishing an entry allocates nothing
+ * - Producers claim a sequence number with a compare-and-set on a shared cursor, fill the slot
+ *   of that sequence and publish it; no producer ever takes a lock or waits for another one
+ * - A full buffer is reported to the producer ({@link #tryClaim()} returns {@code -1}) instead of blocking
+ * - The consumer processes published slots strictly in sequence order and waits for new entries
+ *   according to the configured {@link WaitStrategy}
+
+ * Usage:
+ * - Producer: {@code long sequence = tryClaim()}, fill {@code get(sequence)}, then {@code publish(sequence)}
+ * - Consumer: {@link #drain(int, Consumer)} followed by {@link #await(long, long)} when nothing was drained
+
+ * Thread Safety:
+ * - {@link #tryClaim()}, {@link #get(long)} and {@link #publish(long)} may be called by any number of threads
+ * - {@link #drain(int, Consumer)} and {@link #await(long, long)} must only be called by the single consumer thread
+ * - Publishing a slot and parking the consumer both go through volatile accesses, so a producer
+ *   always sees a consumer that is about to park and wakes it up
+ */
+public class LogRingBuffer<E> {
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long SLEEP_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final E[] slots;
+    private final int mask;
+    private final AtomicLongArray published;
+    private final AtomicLong producerCursor = new AtomicLong();
+    private final WaitStrategy waitStrategy;
+
+    private volatile long consumerSequence;
+    private volatile Thread parkedConsumer;
+
+    @SuppressWarnings("unchecked")
+    public LogRingBuffer(int requestedCapacity, Supplier<E> slotFactory, WaitStrategy waitStrategy) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity) - 1) << 1;
+        this.slots = (E[]) new Object[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = slotFactory.get();
+        }
+        this.mask = capacity - 1;
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+        this.waitStrategy = waitStrategy;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    public long tryClaim() {
+        while (true) {
+            long current = producerCursor.get();
+            if (current - consumerSequence >= slots.length) {
+                return -1;
+            }
+            if (producerCursor.compareAndSet(current, current + 1)) {
+                return current;
+            }
+        }
+    }
+
+    public E get(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    public void publish(long sequence) {
+        published.set((int) sequence & mask, sequence);
+        wakeUpConsumer();
+    }
+
+    public long size() {
+        return Math.max(0, producerCursor.get() - consumerSequence);
+    }
+
+    public boolean hasPending() {
+        return producerCursor.get() != consumerSequence;
+    }
+
+    public int drain(int maxEntries, Consumer<E> handler) {
+        long sequence = consumerSequence;
+        int drained = 0;
+
+        while (drained < maxEntries && published.get((int) sequence & mask) == sequence) {
+            handler.accept(slots[(int) sequence & mask]);
+            sequence++;
+            drained++;
+        }
+
+        if (drained > 0) {
+            consumerSequence = sequence;
+        }
+        return drained;
+    }
+
+    public void await(long idleRounds, long maxWaitNanos) {
+        switch (waitStrategy) {
+            case BUSY_SPIN -> Thread.onSpinWait();
+            case YIELDING -> {
+                if (idleRounds < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            case SLEEPING -> {
+                if (idleRounds < SPIN_TRIES) {
+                    Thread.onSpinWait();
+                } else if (idleRounds < SPIN_TRIES + YIELD_TRIES) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(Math.min(SLEEP_NANOS, maxWaitNanos));
+                }
+            }
+            case BLOCKING -> {
+                parkedConsumer = Thread.currentThread();
+                try {
+                    if (!isNextPublished()) {
+                        LockSupport.parkNanos(this, maxWaitNanos);
+                    }
+                } finally {
+                    parkedConsumer = null;
+                }
+            }
+        }
+    }
+
+    public void wakeUpConsumer() {
+        Thread consumer = parkedConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    private boolean isNextPublished() {
+        long sequence = consumerSequence;
+        return published.get((int) sequence & mask) == sequence;
+    }
+}
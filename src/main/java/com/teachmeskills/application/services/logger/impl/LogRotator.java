@@ -0,0 +1,228 @@
+package com.teachmeskills.application.services.logger.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+/**
+ * The {@code LogRotator} class decides when an active log file is rotated and archives the rotated segments.
+
+ * Key Features:
+ * - A log file is rotated before the next line once it has reached the maximum segment size and/or
+ *   once the day of its first entry has ended
+ * - The active file is renamed to {@code <name>.<yyyy-MM-dd>.<n>.<ext>}, where the date is the day the
+ *   segment was started and {@code n} numbers the segments of that day; the logger thread then
+ *   continues with a new, empty active file; the time index of the file is renamed with it
+ * - Rotated segments are compressed with gzip on a single low-priority background thread, so the
+ *   logger thread only pays for a rename
+ * - After each archived segment, the oldest segments of the same log file beyond the retention
+ *   limit are deleted
+ * - Segments left uncompressed by an earlier run (for example, one that ended during compression)
+ *   are compressed when their log file is opened again
+
+ * Usage Notes:
+ * - A maximum size of {@code 0} disables size-based rotation; with daily rotation disabled as well,
+ *   files are never rotated
+ * - A retention limit of {@code 0} keeps every segment
+
+ * Thread Safety:
+ * - {@link #shouldRotate(long, long, long)}, {@link #rotate(Path, long)} and
+ *   {@link #recoverPendingSegments(Path)} are called by the logger thread only; the archiver thread
+ *   works on rotated segments, which the logger thread never touches again
+ */
+public class LogRotator implements AutoCloseable {
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final long maxSegmentBytes;
+    private final boolean daily;
+    private final boolean compress;
+    private final int maxSegments;
+    private final ExecutorService archiver;
+
+    private record Segment(Path path, LocalDate date, int index) {
+    }
+
+    public LogRotator(long maxSegmentBytes, boolean daily, boolean compress, int maxSegments) {
+        this.maxSegmentBytes = Math.max(0, maxSegmentBytes);
+        this.daily = daily;
+        this.compress = compress;
+        this.maxSegments = Math.max(0, maxSegments);
+        this.archiver = Executors.newSingleThreadExecutor(this::createArchiverThread);
+    }
+
+    private Thread createArchiverThread(Runnable r) {
+        Thread thread = new Thread(r);
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.setName("log-archiver-thread");
+        return thread;
+    }
+
+    public boolean isEnabled() {
+        return maxSegmentBytes > 0 || daily;
+    }
+
+    public long segmentEndMillis(long segmentStartMillis) {
+        if (!daily) {
+            return Long.MAX_VALUE;
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        return dayOf(segmentStartMillis).plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    public boolean shouldRotate(long segmentBytes, long segmentEndMillis, long nowMillis) {
+        if (segmentBytes == 0) {
+            return false;
+        }
+        return (maxSegmentBytes > 0 && segmentBytes >= maxSegmentBytes) || nowMillis >= segmentEndMillis;
+    }
+
+    public void rotate(Path activeFile, long segmentStartMillis) throws IOException {
+        LocalDate date = dayOf(segmentStartMillis);
+        int index = listSegments(activeFile).stream()
+                .filter(segment -> segment.date().equals(date))
+                .mapToInt(Segment::index)
+                .max()
+                .orElse(0) + 1;
+
+        Path segment = activeFile.resolveSibling(baseName(activeFile) + "." + date + "." + index + extension(activeFile));
+        Files.move(activeFile, segment);
+        Path activeIndex = LogSegmentIndex.indexPathOf(activeFile);
+        if (Files.exists(activeIndex)) {
+            Files.move(activeIndex, LogSegmentIndex.indexPathOf(segment), StandardCopyOption.REPLACE_EXISTING);
+        }
+        submitArchiving(activeFile, segment);
+    }
+
+    public void recoverPendingSegments(Path activeFile) {
+        if (!compress) {
+            return;
+        }
+        try {
+            for (Segment segment : listSegments(activeFile)) {
+                if (!segment.path().getFileName().toString().endsWith(GZIP_SUFFIX)) {
+                    submitArchiving(activeFile, segment.path());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to look for rotated log segments: " + activeFile + " - " + e.getMessage());
+        }
+    }
+
+    private void submitArchiving(Path activeFile, Path segment) {
+        try {
+            archiver.submit(() -> archive(activeFile, segment));
+        } catch (RejectedExecutionException e) {
+            System.err.println("The rotated log segment will be archived on the next run: " + segment);
+        }
+    }
+
+    private void archive(Path activeFile, Path segment) {
+        if (compress) {
+            compress(segment);
+        }
+        enforceRetention(activeFile);
+    }
+
+    private void compress(Path segment) {
+        Path compressed = segment.resolveSibling(segment.getFileName() + GZIP_SUFFIX);
+        Path temporary = segment.resolveSibling(compressed.getFileName() + TEMPORARY_SUFFIX);
+        try {
+            try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(temporary), COPY_BUFFER_SIZE)) {
+                Files.copy(segment, output);
+            }
+            Files.move(temporary, compressed, StandardCopyOption.REPLACE_EXISTING);
+            Files.delete(segment);
+        } catch (IOException e) {
+            System.err.println("Failed to compress the log segment: " + segment + " - " + e.getMessage());
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException ignored) {
+                // the temporary file is replaced by the next attempt
+            }
+        }
+    }
+
+    private void enforceRetention(Path activeFile) {
+        if (maxSegments == 0) {
+            return;
+        }
+        try {
+            List<Segment> segments = listSegments(activeFile);
+            segments.sort(Comparator.comparing(Segment::date).thenComparingInt(Segment::index).reversed());
+            for (Segment segment : segments.subList(Math.min(maxSegments, segments.size()), segments.size())) {
+                Files.deleteIfExists(segment.path());
+                Files.deleteIfExists(LogSegmentIndex.indexPathOf(segment.path()));
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to delete old log segments: " + activeFile + " - " + e.getMessage());
+        }
+    }
+
+    private List<Segment> listSegments(Path activeFile) throws IOException {
+        Path directory = activeFile.toAbsolutePath().getParent();
+        Pattern pattern = Pattern.compile(Pattern.quote(baseName(activeFile)) + "\\.(\\d{4}-\\d{2}-\\d{2})\\.(\\d+)"
+                + Pattern.quote(extension(activeFile)) + "(" + Pattern.quote(GZIP_SUFFIX) + ")?");
+
+        List<Segment> segments = new ArrayList<>();
+        if (directory == null || !Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, baseName(activeFile) + ".*")) {
+            for (Path entry : entries) {
+                Matcher matcher = pattern.matcher(entry.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.add(new Segment(entry, LocalDate.parse(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+                }
+            }
+        }
+        return segments;
+    }
+
+    private static LocalDate dayOf(long epochMillis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static String baseName(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    private static String extension(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(dot) : "";
+    }
+
+    @Override
+    public void close() {
+        archiver.shutdown();
+        try {
+            if (!archiver.awaitTermination(10, TimeUnit.SECONDS)) {
+                archiver.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            archiver.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.teachmeskills.application.services.logger.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+/**
+ * The {@code LogSegmentIndex} class maintains the sparse time index written next to every log file.
+
+ * Key Features:
+ * - The index of {@code info_log.txt} is {@code info_log.txt.idx}; rotated segments keep their index
+ *   under the segment name, also after the segment has been compressed ({@code <segment>.txt.gz} is
+ *   indexed by {@code <segment>.txt.idx})
+ * - Each record holds the timestamp of a log entry and the byte offset of its line in the uncompressed
+ *   file (two big-endian longs); a record is written for the first line of a file and then whenever
+ *   at least {@code intervalBytes} have been written since the previous record
+ * - Whenever a file is closed (on rotation or shutdown), its index is sealed with a record holding the
+ *   latest timestamp written, so a lookup can tell that a rotated segment ends before a point in time
+ * - {@link #read(Path)} loads an index for lookups; {@link Lookup#startOffset(long)} returns the offset
+ *   from which a scan for a point in time has to start
+
+ * Usage Notes:
+ * - Entries are stamped when the log call is made and queued in claim order, so timestamps in a file are
+ *   only nearly ascending; lookups therefore start a little earlier than the requested time
+ * - An index that is missing or starts after the beginning of its file (for example, because indexing
+ *   was enabled later) simply makes the scan start at an earlier offset
+
+ * Thread Safety:
+ * - Writing instances are owned by the logger thread; {@link Lookup} instances are immutable
+ */
+public class LogSegmentIndex {
+
+    public static final String INDEX_SUFFIX = ".idx";
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final int RECORD_BYTES = 2 * Long.BYTES;
+    private static final long ORDERING_SLACK_MILLIS = 1000;
+
+    private final long intervalBytes;
+    private final ByteBuffer pending = ByteBuffer.allocate(256 * RECORD_BYTES);
+    private Path indexFile;
+    private FileChannel channel;
+    private long lastIndexedOffset = -1;
+    private long lastTimestampMillis = Long.MIN_VALUE;
+
+    public LogSegmentIndex(long intervalBytes) {
+        this.intervalBytes = Math.max(0, intervalBytes);
+    }
+
+    public static Path indexPathOf(Path logFile) {
+        String name = logFile.getFileName().toString();
+        if (name.endsWith(GZIP_SUFFIX)) {
+            name = name.substring(0, name.length() - GZIP_SUFFIX.length());
+        }
+        return logFile.resolveSibling(name + INDEX_SUFFIX);
+    }
+
+    public boolean isEnabled() {
+        return intervalBytes > 0;
+    }
+
+    public void open(Path logFile, long logFileSize) throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        indexFile = indexPathOf(logFile);
+        channel = FileChannel.open(indexFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (logFileSize == 0) {
+            channel.truncate(0);
+        }
+        long size = channel.size();
+        channel.position(size - size % RECORD_BYTES);
+        lastIndexedOffset = logFileSize == 0 ? -1 : logFileSize;
+    }
+
+    public void record(long timestampMillis, long offset) throws IOException {
+        lastTimestampMillis = Math.max(lastTimestampMillis, timestampMillis);
+        if (channel == null || (lastIndexedOffset >= 0 && offset - lastIndexedOffset < intervalBytes)) {
+            return;
+        }
+        append(timestampMillis, offset);
+    }
+
+    public void seal(long endOffset) throws IOException {
+        if (channel != null && lastTimestampMillis != Long.MIN_VALUE) {
+            append(lastTimestampMillis, endOffset);
+        }
+    }
+
+    private void append(long timestampMillis, long offset) throws IOException {
+        if (!pending.hasRemaining()) {
+            flush();
+        }
+        pending.putLong(timestampMillis).putLong(offset);
+        lastIndexedOffset = offset;
+    }
+
+    public void flush() throws IOException {
+        if (channel == null || pending.position() == 0) {
+            return;
+        }
+        pending.flip();
+        try {
+            while (pending.hasRemaining()) {
+                channel.write(pending);
+            }
+        } finally {
+            pending.clear();
+        }
+    }
+
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            flush();
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close the log index: " + indexFile + " - " + e.getMessage());
+        } finally {
+            channel = null;
+            pending.clear();
+            lastTimestampMillis = Long.MIN_VALUE;
+        }
+    }
+
+    public static Lookup read(Path logFile) throws IOException {
+        Path index = indexPathOf(logFile);
+        if (!Files.isRegularFile(index)) {
+            return new Lookup(new long[0], new long[0]);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(index));
+        int count = buffer.remaining() / RECORD_BYTES;
+        long[] timestamps = new long[count];
+        long[] offsets = new long[count];
+        for (int i = 0; i < count; i++) {
+            timestamps[i] = buffer.getLong();
+            offsets[i] = buffer.getLong();
+        }
+        return new Lookup(timestamps, offsets);
+    }
+
+    public record Lookup(long[] timestamps, long[] offsets) {
+
+        public boolean isEmpty() {
+            return timestamps.length == 0;
+        }
+
+        public boolean mayContain(long fromMillis, long toMillis, boolean sealed) {
+            if (isEmpty()) {
+                return true;
+            }
+            return timestamps[0] <= toMillis + ORDERING_SLACK_MILLIS
+                    && (!sealed || timestamps[timestamps.length - 1] + ORDERING_SLACK_MILLIS >= fromMillis);
+        }
+
+        public long startOffset(long fromMillis) {
+            long target = fromMillis - ORDERING_SLACK_MILLIS;
+            int low = 0;
+            int high = timestamps.length - 1;
+            int found = -1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (timestamps[middle] <= target) {
+                    found = middle;
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return found < 0 ? 0 : offsets[found];
+        }
+
+        public static long orderingSlackMillis() {
+            return ORDERING_SLACK_MILLIS;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.teachmeskills.application.services.logger.impl;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+/**
+ * The {@code LogTimestampCache} class formats log timestamps with second resolution and reuses
+ * the formatted text for every entry of the same second.
+
+ * Key Features:
+ * - The formatter runs at most once per second of log time instead of once per entry
+ * - Timestamps are formatted as local date-times of the given zone, so the text is the same as when
+ *   formatting {@code LocalDateTime.ofInstant(instant, zone)} directly
+
+ * Thread Safety:
+ * - Not thread-safe; the cache is owned by the logger thread of {@code LoggerService}
+ */
+public class LogTimestampCache {
+
+    private final DateTimeFormatter formatter;
+    private final ZoneId zone;
+
+    private long cachedSecond = Long.MIN_VALUE;
+    private String cachedText;
+
+    public LogTimestampCache(DateTimeFormatter formatter, ZoneId zone) {
+        this.formatter = formatter;
+        this.zone = zone;
+    }
+
+    public String format(long epochMillis) {
+        long second = Math.floorDiv(epochMillis, 1000);
+        if (second != cachedSecond) {
+            cachedText = LocalDateTime.ofInstant(Instant.ofEpochSecond(second), zone).format(formatter);
+            cachedSecond = second;
+        }
+        return cachedText;
+    }
+}
@@ -1,20 +1,26 @@
 package com.teachmeskills.application.services.logger.impl;
 
 import com.teachmeskills.application.services.logger.ILogger;
+import com.teachmeskills.application.services.logger.LogLevel;
+import com.teachmeskills.application.services.logger.config.CallerLocationMode;
+import com.teachmeskills.application.services.logger.config.LogOutputFormat;
+import com.teachmeskills.application.services.logger.config.LoggerConfiguration;
+import com.teachmeskills.application.services.logger.config.OverflowPolicy;
+import com.teachmeskills.application.services.logger.config.WaitStrategy;
+import com.teachmeskills.application.services.logger.metrics.LoggerMetrics;
 
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
-import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 import static com.teachmeskills.application.utils.constant.FilePathConstants.*;
 
@@ -28,6 +34,20 @@ import static com.teachmeskills.application.utils.constant.FilePathConstants.*;
  * - Writes log messages to specific files based on log levels.
  * - Allows custom log formatting using optional constructor.
  * - Formats log messages to include timestamps, levels, and caller details.
+ * - Caller details are captured according to the configured {@link CallerLocationMode}: not at all,
+ *   with a {@link StackWalker} that stops at the first caller frame (the default), or from the full
+ *   stack trace. Each log call captures its caller at most once, and only after it has claimed a slot
+ *   in the ring buffer, so dropped entries cost no stack walk.
+ * - Messages below the configured minimum level are discarded before anything is captured or queued.
+ * - Parameterized messages are queued with their arguments and formatted on the logger thread;
+ *   the calling thread only captures the timestamp and the caller location.
+ * - {@link #forSource(Class)} hands out a {@link ScopedLogger} when a level threshold is configured
+ *   for the package or class of the source; other sources share this logger and its global level.
+ * - Parameterized messages are rate limited per format string by a {@link LogRateLimiter}; the
+ *   logger thread writes one summary with the number of suppressed messages per format and window.
+ * - A full ring buffer is handled by the configured {@link OverflowPolicy} (block with timeout, drop the
+ *   lowest level first, drop the oldest entries, or sample); dropped entries are counted per level in
+ *   {@link LogDropCounters} and the logger thread periodically writes the counts to the warning log.
 
  * Usage Scenarios:
  * - Application runtime information logging.
@@ -35,15 +55,33 @@ import static com.teachmeskills.application.utils.constant.FilePathConstants.*;
  * - Asynchronous background writing to log files to avoid blocking.
 
  * Implementation Details:
- * - Uses a BlockingQueue to manage log entries internally.
- * - Supports ANSI color-coding for console logs (Info, Warning, Error).
+ * - Uses a preallocated, lock-free {@link LogRingBuffer} to hand log entries to the logger thread;
+ *   producers fill reusable entry slots and never take a lock.
+ * - The logger thread drains the ring buffer in batches and writes through a {@link LogFileWriter},
+ *   which keeps one open channel per log file instead of reopening the file for every message.
+ * - When the ring buffer is empty, the logger thread flushes the written entries and waits according
+ *   to the configured {@link WaitStrategy}; under load, entries are flushed once the flush interval
+ *   has elapsed or a file buffer is full, and always on shutdown.
+ * - Each log file is rotated by size and/or day by a {@link LogRotator}; rotated segments are compressed
+ *   and pruned to the retention limit on a low-priority background thread.
+ * - Every log file gets a sparse time index ({@link LogSegmentIndex}), which lets
+ *   {@code LogQueryTool} seek straight to a time range.
+ * - Queue depth, pressure events, call-to-write latency, batch sizes, bytes written and drops are
+ *   collected by {@link LoggerMetrics}, published as a JMX MBean and written as a periodic stats line.
+ * - Buffer capacity, batch size, flush policy, wait strategy and rotation come from {@link LoggerConfiguration}.
+ * - Writes either text lines or JSON lines ({@link LogOutputFormat}); JSON lines carry the level,
+ *   epoch milliseconds, thread, location and message as separate fields and are rendered by a
+ *   {@link LogJsonFormatter}.
+ * - The second-resolution part of every timestamp is formatted once per second by a {@link LogTimestampCache}.
  * - Creates and maintains a designated directory for log files.
  * - Supports proper shutdown and resource cleanup via the AutoCloseable interface.
 
  * Thread Safety:
  * - The logging mechanism is designed to support multi-threaded applications
- *   via asynchronous queue-based logging.
- * - Ensures proper cleanup by shutting down the executor during close.
+ *   via an asynchronous multi-producer ring buffer.
+ * - Ensures proper cleanup by shutting down the executor during close; pending entries are
+ *   written and flushed first. A logger created by {@link #withShutdownHook(String)} is also
+ *   closed by a shutdown hook when the JVM exits.
 
  * Logging Levels:
  * - Info: General information about application flow.
@@ -51,42 +89,107 @@ import static com.teachmeskills.application.utils.constant.FilePathConstants.*;
  * - Error: Critical errors and exceptions, allows stack trace inclusion.
 
  * Example Internal Workflow:
- * 1. A logging message is queued with relevant details such as level,
- *    formatted message, and optional stack trace for errors.
- * 2. A background thread processes log entries from the queue.
+ * 1. A logging message is queued with relevant details such as level, timestamp,
+ *    message and arguments, caller location, and optional exception for errors.
+ * 2. A background thread processes log entries from the queue and formats them.
  * 3. Each log message is written to the appropriate file and optionally decorated
  *    with stack trace if relevant.
+ * 4. The written batch is flushed according to the flush policy.
  */
 public class LoggerService implements ILogger, AutoCloseable {
-    private static final String ANSI_RESET = "\u001B[0m";
-    private static final String ANSI_INFO = "\u001B[34m";
-    private static final String ANSI_ERROR = "\u001B[31m";
-    private static final String ANSI_WARNING = "\u001B[33m";
-
-    private static final int CALLER_DEPTH = 3;
+    private static final long OVERFLOW_RETRY_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
 
     private final String logFormat;
-    private final BlockingQueue<LogEntry> logQueue;
+    private final LoggerConfiguration configuration;
+    private final LogRingBuffer<LogEntry> ringBuffer;
     private final ExecutorService logExecutor;
-    private final DateTimeFormatter formatter;
+    private final LogTimestampCache timestampCache;
+    private final LogJsonFormatter jsonFormatter = new LogJsonFormatter();
+    private final LogFileWriter logFileWriter;
+    private final CallerLocator callerLocator;
+    private final LogRateLimiter rateLimiter;
+    private final LogDropCounters dropCounters = new LogDropCounters();
+    private final AtomicLong pendingDiscards = new AtomicLong();
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final long[] admissionLimits;
+    private final LoggerMetrics metrics;
+    private final Map<Class<?>, ILogger> sourceLoggers = new ConcurrentHashMap<>();
+
+    private volatile boolean running = true;
+
+    private static final class LogEntry {
+        private LogLevel level;
+        private long timestampMillis;
+        private String message;
+        private Object[] args;
+        private StackTraceElement caller;
+        private Throwable throwable;
+        private StackTraceElement[] callerFrames;
+        private Thread thread;
+        private long enqueueNanos;
+
+        private LogEntry set(LogLevel level, long timestampMillis, String message, Object[] args,
+                             StackTraceElement caller, Throwable throwable, StackTraceElement[] callerFrames, Thread thread) {
+            this.level = level;
+            this.timestampMillis = timestampMillis;
+            this.message = message;
+            this.args = args;
+            this.caller = caller;
+            this.throwable = throwable;
+            this.callerFrames = callerFrames;
+            this.thread = thread;
+            return this;
+        }
 
-    private record LogEntry(String formattedMessage, String logPath, boolean isError, String stackTrace) {}
+        private void clear() {
+            set(null, 0, null, null, null, null, null, null);
+        }
+    }
 
     public LoggerService() {
         this("%s | %s | %s");
     }
 
     public LoggerService(String logFormat) {
+        this(logFormat, LoggerConfiguration.load());
+    }
+
+    public LoggerService(String logFormat, LoggerConfiguration configuration) {
         this.logFormat = logFormat;
-        this.logQueue = new LinkedBlockingQueue<>(1000);
+        this.configuration = configuration;
+        this.ringBuffer = new LogRingBuffer<>(configuration.queueCapacity(), LogEntry::new, configuration.waitStrategy());
         this.logExecutor = Executors.newSingleThreadExecutor(this::createLoggerThread);
-        this.formatter = DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss z yyyy", Locale.ENGLISH)
-                .withZone(ZoneId.of("Europe/Moscow"));
+        this.timestampCache = new LogTimestampCache(DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss z yyyy", Locale.ENGLISH)
+                .withZone(ZoneId.of("Europe/Moscow")), ZoneId.systemDefault());
+        this.logFileWriter = new LogFileWriter(configuration.flushThresholdBytes(), new LogRotator(
+                configuration.rotationMaxBytes(), configuration.rotationDaily(),
+                configuration.rotationCompress(), configuration.rotationMaxSegments()), configuration.indexIntervalBytes());
+        this.callerLocator = new CallerLocator(configuration.callerLocationMode());
+        this.rateLimiter = new LogRateLimiter(configuration.rateLimitPerWindow(), configuration.rateLimitWindowMillis());
+        this.admissionLimits = createAdmissionLimits(ringBuffer.capacity());
+        this.metrics = new LoggerMetrics(ringBuffer.capacity(), ringBuffer::size, dropCounters);
+        if (configuration.metricsJmx()) {
+            metrics.register(getClass().getSimpleName());
+        }
 
         createLogDirectory();
         startAsyncLogger();
     }
 
+    public static LoggerService withShutdownHook(String logFormat) {
+        LoggerService logger = new LoggerService(logFormat);
+        Runtime.getRuntime().addShutdownHook(new Thread(logger::close, "logger-shutdown-hook"));
+        return logger;
+    }
+
+    private static long[] createAdmissionLimits(int capacity) {
+        long[] limits = new long[LogLevel.values().length];
+        limits[LogLevel.INFO.ordinal()] = capacity - capacity / 4;
+        limits[LogLevel.WARNING.ordinal()] = capacity - capacity / 16;
+        limits[LogLevel.ERROR.ordinal()] = capacity;
+        return limits;
+    }
+
     private Thread createLoggerThread(Runnable r) {
         Thread thread = new Thread(r);
         thread.setDaemon(true);
@@ -104,68 +207,240 @@ public class LoggerService implements ILogger, AutoCloseable {
 
     private void startAsyncLogger() {
         logExecutor.submit(() -> {
-            while (!Thread.currentThread().isInterrupted()) {
-                try {
-                    LogEntry logEntry = logQueue.take();
-                    writeLogToFile(logEntry);
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
+            long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(configuration.flushIntervalMillis());
+            long dropReportIntervalNanos = TimeUnit.MILLISECONDS.toNanos(configuration.dropReportIntervalMillis());
+            long lastFlushNanos = System.nanoTime();
+            long metricsIntervalNanos = TimeUnit.MILLISECONDS.toNanos(configuration.metricsIntervalMillis());
+            long lastDropReportNanos = lastFlushNanos;
+            long lastMetricsReportNanos = lastFlushNanos;
+            long idleRounds = 0;
+
+            try {
+                while (running || ringBuffer.hasPending()) {
+                    discardOldestEntries();
+                    if (System.nanoTime() - lastDropReportNanos >= dropReportIntervalNanos) {
+                        writeDropReport();
+                        lastDropReportNanos = System.nanoTime();
+                    }
+                    if (metricsIntervalNanos > 0 && System.nanoTime() - lastMetricsReportNanos >= metricsIntervalNanos) {
+                        writeMetricsReport();
+                        lastMetricsReportNanos = System.nanoTime();
+                    }
+
+                    long depth = ringBuffer.size();
+                    int drained = ringBuffer.drain(configuration.batchSize(), this::writeAndRelease);
+
+                    if (drained > 0) {
+                        metrics.recordBatch(drained, depth);
+                        idleRounds = 0;
+                        if (System.nanoTime() - lastFlushNanos >= flushIntervalNanos) {
+                            writeSuppressionSummaries(false);
+                            logFileWriter.flush();
+                            lastFlushNanos = System.nanoTime();
+                        }
+                        continue;
+                    }
+
+                    if (idleRounds++ == 0 || System.nanoTime() - lastFlushNanos >= flushIntervalNanos) {
+                        writeSuppressionSummaries(false);
+                        logFileWriter.flush();
+                        lastFlushNanos = System.nanoTime();
+                    }
+                    if (Thread.currentThread().isInterrupted()) {
+                        break;
+                    }
+                    ringBuffer.await(idleRounds, flushIntervalNanos);
                 }
+                ringBuffer.drain(Integer.MAX_VALUE, this::writeAndRelease);
+            } finally {
+                writeSuppressionSummaries(true);
+                writeDropReport();
+                logFileWriter.close();
             }
         });
     }
 
+    private void writeAndRelease(LogEntry entry) {
+        try {
+            writeLogToFile(entry);
+            metrics.recordLatency(System.nanoTime() - entry.enqueueNanos);
+        } finally {
+            entry.clear();
+        }
+    }
+
+    private void discardOldestEntries() {
+        long discards = pendingDiscards.getAndSet(0);
+        if (discards > 0) {
+            ringBuffer.drain((int) Math.min(discards, ringBuffer.capacity()), this::discardAndRelease);
+        }
+    }
+
+    private void discardAndRelease(LogEntry entry) {
+        dropCounters.increment(entry.level);
+        entry.clear();
+    }
+
     private void writeLogToFile(LogEntry entry) {
+        String stackTrace = entry.throwable != null
+                ? getStackTraceAsString(entry.throwable)
+                : CallerLocator.formatStack(entry.callerFrames);
+        if (entry.level != LogLevel.ERROR) {
+            stackTrace = null;
+        }
+
+        String formattedMessage = configuration.outputFormat() == LogOutputFormat.JSON
+                ? formatJsonEntry(entry, stackTrace)
+                : formatEntry(entry);
+        if (formattedMessage == null) {
+            return;
+        }
+
+        String logPath = logPathOf(entry.level);
+        long bytes = logFileWriter.writeLine(logPath, entry.timestampMillis, formattedMessage);
+
+        if (stackTrace != null && configuration.outputFormat() == LogOutputFormat.TEXT) {
+            bytes += logFileWriter.writeLine(logPath, entry.timestampMillis, stackTrace);
+        }
+        metrics.recordBytes(entry.level, bytes);
+    }
+
+    private void writeSuppressionSummaries(boolean force) {
+        rateLimiter.collectSuppressed(System.currentTimeMillis(), force, suppression -> writeLogToFile(new LogEntry().set(
+                suppression.level(), System.currentTimeMillis(),
+                suppression.suppressedCount() + " similar messages were suppressed within " + rateLimiter.getWindowMillis()
+                        + " ms: " + suppression.format(),
+                null, null, null, null, Thread.currentThread())));
+    }
+
+    private void writeDropReport() {
+        long[] dropped = dropCounters.drainPeriod();
+        long total = 0;
+        StringBuilder counts = new StringBuilder();
+        for (LogLevel level : LogLevel.values()) {
+            total += dropped[level.ordinal()];
+            counts.append(counts.isEmpty() ? "" : ", ").append(level.getLabel()).append('=').append(dropped[level.ordinal()]);
+        }
+        if (total > 0) {
+            writeLogToFile(new LogEntry().set(LogLevel.WARNING, System.currentTimeMillis(),
+                    total + " log entries were dropped because the log buffer was full (policy "
+                            + configuration.overflowPolicy() + "): " + counts,
+                    null, null, null, null, Thread.currentThread()));
+        }
+    }
+
+    private void writeMetricsReport() {
+        writeLogToFile(new LogEntry().set(LogLevel.INFO, System.currentTimeMillis(), metrics.formatReport(),
+                null, null, null, null, Thread.currentThread()));
+    }
+
+    private String formatEntry(LogEntry entry) {
         try {
-            Path logPath = Paths.get(entry.logPath());
-            writeMessageToFile(logPath, entry.formattedMessage());
+            return String.format(
+                    logFormat,
+                    timestampCache.format(entry.timestampMillis),
+                    entry.level.getLabel(),
+                    appendCallerLocation(formatMessage(entry), entry.caller)
+            );
+        } catch (Exception e) {
+            System.err.println("Failed to format log message: " + entry.message + " - " + e.getMessage());
+            return null;
+        }
+    }
 
-            if (entry.isError() && entry.stackTrace() != null) {
-                writeMessageToFile(logPath, entry.stackTrace());
-            }
-        } catch (IOException e) {
-            System.err.println("Log writing error: " + e.getMessage());
+    private String formatJsonEntry(LogEntry entry, String stackTrace) {
+        try {
+            String location = callerLocator.getMode() == CallerLocationMode.OFF || entry.caller == null
+                    ? null
+                    : CallerLocator.format(entry.caller);
+            return jsonFormatter.format(entry.level, entry.timestampMillis, threadNameOf(entry.thread), location,
+                    formatMessage(entry), stackTrace);
+        } catch (Exception e) {
+            System.err.println("Failed to format log message: " + entry.message + " - " + e.getMessage());
+            return null;
         }
     }
 
-    private void writeMessageToFile(Path logPath, String message) throws IOException {
-        Files.writeString(
-                logPath,
-                message + System.lineSeparator(),
-                StandardCharsets.UTF_8,
-                StandardOpenOption.CREATE,
-                StandardOpenOption.APPEND
-        );
+    private static String formatMessage(LogEntry entry) {
+        return entry.args == null || entry.args.length == 0
+                ? entry.message
+                : String.format(entry.message, entry.args);
+    }
+
+    private static String threadNameOf(Thread thread) {
+        if (thread == null) {
+            return null;
+        }
+        String name = thread.getName();
+        return name.isEmpty() ? (thread.isVirtual() ? "virtual-" : "thread-") + thread.threadId() : name;
+    }
+
+    private String logPathOf(LogLevel level) {
+        return switch (level) {
+            case INFO -> INFO_LOG_PATH;
+            case WARNING -> WARNING_LOG_PATH;
+            case ERROR -> ERROR_LOG_PATH;
+        };
+    }
+
+    public long getDroppedCount(LogLevel level) {
+        return dropCounters.getTotal(level);
+    }
+
+    public LoggerMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public boolean isEnabled(LogLevel level) {
+        return level.isAtLeast(configuration.level());
+    }
+
+    @Override
+    public ILogger forSource(Class<?> source) {
+        if (configuration.sourceLevels().isEmpty()) {
+            return this;
+        }
+        return sourceLoggers.computeIfAbsent(source, key -> {
+            LogLevel threshold = configuration.levelFor(key.getName());
+            return threshold == configuration.level() ? this : new ScopedLogger(this, threshold);
+        });
     }
 
     @Override
     public void logInfo(String message) {
-        queueLog(ANSI_INFO + "Info" + ANSI_RESET, message, INFO_LOG_PATH, false, null);
+        log(LogLevel.INFO, message);
     }
 
     @Override
     public void logWarning(String message) {
-        queueLog(ANSI_WARNING + "Warning" + ANSI_RESET, message, WARNING_LOG_PATH, false, null);
+        log(LogLevel.WARNING, message);
     }
 
     @Override
     public void logError(String message) {
-        logError(message, null);
+        logError(message, (Throwable) null);
     }
 
     public void logError(String message, Throwable throwable) {
-        StackTraceElement[] stackTrace = throwable != null ? throwable.getStackTrace() : Thread.currentThread().getStackTrace();
-
-        String callerDetails = extractCallerDetails(stackTrace);
-        String fullStackTrace = throwable != null ? getStackTraceAsString(throwable) : null;
+        if (isEnabled(LogLevel.ERROR)) {
+            dispatch(LogLevel.ERROR, message, null, throwable);
+        }
+    }
 
-        String errorMessage = String.format(
-                "%s | Location: %s",
-                message,
-                callerDetails
-        );
+    @Override
+    public void log(LogLevel level, String format, Object... args) {
+        if (isEnabled(level)) {
+            dispatch(level, format, args, null);
+        }
+    }
 
-        queueLog(ANSI_ERROR + "Error" + ANSI_RESET, errorMessage, ERROR_LOG_PATH, true, fullStackTrace);
+    void dispatch(LogLevel level, String format, Object[] args, Throwable throwable) {
+        long timestampMillis = System.currentTimeMillis();
+        if (args != null && args.length > 0 && !rateLimiter.tryAcquire(level, format, timestampMillis)) {
+            return;
+        }
+        queueLog(level, timestampMillis, format, args, throwable);
     }
 
     private String getStackTraceAsString(Throwable throwable) {
@@ -175,47 +450,84 @@ public class LoggerService implements ILogger, AutoCloseable {
         return stringWriter.toString();
     }
 
-    private String extractCallerDetails(StackTraceElement[] stackTrace) {
-        if (stackTrace == null || stackTrace.length < CALLER_DEPTH) {
-            return "Unknown location";
+    private String appendCallerLocation(String message, StackTraceElement caller) {
+        if (callerLocator.getMode() == CallerLocationMode.OFF || caller == null) {
+            return message;
         }
-
-        StackTraceElement caller = stackTrace[CALLER_DEPTH];
-        return String.format(
-                "%s.%s (Line: %d)",
-                caller.getClassName(),
-                caller.getMethodName(),
-                caller.getLineNumber()
-        );
+        return message + " | Location: " + CallerLocator.format(caller);
     }
 
-    private void queueLog(String level, String message, String logPath, boolean isError, String stackTrace) {
-        String formattedMessage;
-        try {
-            String callerLocation = extractCallerDetails(Thread.currentThread().getStackTrace());
-            formattedMessage = String.format(
-                    logFormat,
-                    LocalDateTime.now().format(formatter),
-                    level.replace(ANSI_INFO, "").replace(ANSI_ERROR, "").replace(ANSI_WARNING, "").replace(ANSI_RESET, ""),
-                    String.format("%s | Location: %s", message, callerLocation)
-            );
-        } catch (Exception e) {
-            System.err.println("Failed to format log message: " + e.getMessage());
+    private void queueLog(LogLevel level, long timestampMillis, String message, Object[] args, Throwable throwable) {
+        long sequence = claimSlot(level);
+        if (sequence < 0) {
+            dropCounters.increment(level);
             return;
         }
+        StackTraceElement caller;
+        StackTraceElement[] callerFrames = null;
+        if (callerLocator.getMode() == CallerLocationMode.FULL) {
+            StackTraceElement[] frames = callerLocator.captureCallerFrames();
+            caller = callerLocator.locate(frames);
+            callerFrames = level == LogLevel.ERROR && throwable == null ? frames : null;
+        } else {
+            caller = callerLocator.locate();
+        }
+        LogEntry entry = ringBuffer.get(sequence).set(level, timestampMillis, message, args, caller, throwable,
+                callerFrames, Thread.currentThread());
+        entry.enqueueNanos = System.nanoTime();
+        ringBuffer.publish(sequence);
+    }
+
+    private long claimSlot(LogLevel level) {
+        OverflowPolicy policy = configuration.overflowPolicy();
+        boolean underPressure = ringBuffer.size() >= admissionLimits[LogLevel.INFO.ordinal()];
+        if (underPressure) {
+            metrics.recordPressure();
+        }
 
-        try {
-            boolean offered = logQueue.offer(new LogEntry(formattedMessage, logPath, isError, stackTrace));
-            if (!offered) {
-                System.err.println("Log queue is full. Message dropped: " + formattedMessage);
+        if (underPressure && level != LogLevel.ERROR) {
+            if (policy == OverflowPolicy.DROP_LOWEST_LEVEL && ringBuffer.size() >= admissionLimits[level.ordinal()]) {
+                return -1;
             }
-        } catch (Exception e) {
-            System.err.println("Failed to queue log message: " + e.getMessage());
+            if (policy == OverflowPolicy.SAMPLE && sampleCounter.getAndIncrement() % configuration.overflowSampleRate() != 0) {
+                return -1;
+            }
+        }
+
+        long sequence = ringBuffer.tryClaim();
+        if (sequence >= 0) {
+            return sequence;
         }
+        return switch (policy) {
+            case BLOCK -> claimWithinTimeout();
+            case DROP_OLDEST -> {
+                pendingDiscards.incrementAndGet();
+                yield claimWithinTimeout();
+            }
+            case DROP_LOWEST_LEVEL, SAMPLE -> level == LogLevel.ERROR ? claimWithinTimeout() : -1;
+        };
+    }
+
+    private long claimWithinTimeout() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(configuration.overflowBlockTimeoutMillis());
+        while (running) {
+            ringBuffer.wakeUpConsumer();
+            long sequence = ringBuffer.tryClaim();
+            if (sequence >= 0 || System.nanoTime() - deadline >= 0) {
+                return sequence;
+            }
+            LockSupport.parkNanos(OVERFLOW_RETRY_NANOS);
+        }
+        return -1;
     }
 
     @Override
     public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        ringBuffer.wakeUpConsumer();
         logExecutor.shutdown();
         try {
             if (!logExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
@@ -223,6 +535,8 @@ public class LoggerService implements ILogger, AutoCloseable {
             }
         } catch (InterruptedException e) {
             logExecutor.shutdownNow();
+        } finally {
+            metrics.unregister();
         }
     }
 }
\ No newline at end of file
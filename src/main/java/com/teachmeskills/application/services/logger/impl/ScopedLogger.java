@@ -0,0 +1,64 @@
+package com.teachmeskills.application.services.logger.impl;
+
+import com.teachmeskills.application.services.logger.ILogger;
+import com.teachmeskills.application.services.logger.LogLevel;
+/**
+ * The {@code ScopedLogger} class is the view of {@link LoggerService} handed out by
+ * {@link LoggerService#forSource(Class)} for a class with its own level threshold.
+
+ * Key Features:
+ * - Applies the threshold configured for the source (longest matching {@code logger.level.*} prefix)
+ *   instead of the global one; the threshold may be stricter or more verbose than the global level
+ * - Everything else (rate limiting, caller capture, queueing, writing) is done by the shared {@link LoggerService}
+
+ * Thread Safety:
+ * - Immutable; may be shared by any number of threads
+ */
+public class ScopedLogger implements ILogger {
+
+    private final LoggerService delegate;
+    private final LogLevel threshold;
+
+    ScopedLogger(LoggerService delegate, LogLevel threshold) {
+        this.delegate = delegate;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public boolean isEnabled(LogLevel level) {
+        return level.isAtLeast(threshold);
+    }
+
+    @Override
+    public void logInfo(String message) {
+        log(LogLevel.INFO, message);
+    }
+
+    @Override
+    public void logWarning(String message) {
+        log(LogLevel.WARNING, message);
+    }
+
+    @Override
+    public void logError(String message) {
+        log(LogLevel.ERROR, message);
+    }
+
+    public void logError(String message, Throwable throwable) {
+        if (isEnabled(LogLevel.ERROR)) {
+            delegate.dispatch(LogLevel.ERROR, message, null, throwable);
+        }
+    }
+
+    @Override
+    public void log(LogLevel level, String format, Object... args) {
+        if (isEnabled(level)) {
+            delegate.dispatch(level, format, args, null);
+        }
+    }
+
+    @Override
+    public ILogger forSource(Class<?> source) {
+        return delegate.forSource(source);
+    }
+}
@@ -0,0 +1,236 @@
+package com.teachmeskills.application.services.logger.metrics;
+
+import com.teachmeskills.application.services.logger.LogLevel;
+import com.teachmeskills.application.services.logger.impl.LogDropCounters;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+/**
+ * The {@code LoggerMetrics} class collects the health metrics of {@code LoggerService} and exposes them
+ * through JMX and as a periodic stats line.
+
+ * Key Features:
+ * - Queue depth and utilization are read from the ring buffer on demand; the peak depth is sampled by
+ *   the logger thread before every batch
+ * - Log calls made while the ring buffer is at least three quarters full are counted as pressure events,
+ *   which show saturation before any entry (and in particular any error) has to be dropped
+ * - The latency from the log call to the write of its entry is kept in a histogram of power-of-two
+ *   buckets, from which the approximate 99th percentile is derived
+ * - Batch sizes, entries and bytes written per level and the dropped entries per level complete the picture
+ * - {@link #register(String)} publishes the metrics as the MBean
+ *   {@code com.teachmeskills.application:type=Logger,name=<name>}
+
+ * Usage Notes:
+ * - All values are cumulative since the logger was created
+
+ * Thread Safety:
+ * - The {@code record*} methods are called by the logger thread only (single writer);
+ *   {@link #recordPressure()} may be called by any thread
+ * - Getters may be called by any thread, including JMX clients; the latency percentile is computed from
+ *   a histogram that may change while it is read, which only affects the approximation
+ */
+public class LoggerMetrics implements LoggerMetricsMBean {
+
+    private static final String OBJECT_NAME_PREFIX = "com.teachmeskills.application:type=Logger,name=";
+
+    private final int capacity;
+    private final LongSupplier depth;
+    private final LogDropCounters dropCounters;
+    private final LongAdder pressureEvents = new LongAdder();
+    private final AtomicLongArray latencyHistogram = new AtomicLongArray(Long.SIZE);
+    private final AtomicLongArray bytesWritten = new AtomicLongArray(LogLevel.values().length);
+
+    private volatile long peakDepth;
+    private volatile long writtenEntries;
+    private volatile long latencySumNanos;
+    private volatile long latencyMaxNanos;
+    private volatile long batches;
+    private volatile long batchEntries;
+    private volatile long batchMax;
+    private ObjectName objectName;
+
+    public LoggerMetrics(int capacity, LongSupplier depth, LogDropCounters dropCounters) {
+        this.capacity = capacity;
+        this.depth = depth;
+        this.dropCounters = dropCounters;
+    }
+
+    public void register(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName candidate = new ObjectName(OBJECT_NAME_PREFIX + name);
+            for (int suffix = 2; server.isRegistered(candidate); suffix++) {
+                candidate = new ObjectName(OBJECT_NAME_PREFIX + name + "-" + suffix);
+            }
+            server.registerMBean(this, candidate);
+            objectName = candidate;
+        } catch (JMException e) {
+            System.err.println("Failed to register the logger metrics: " + e.getMessage());
+        }
+    }
+
+    public void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            System.err.println("Failed to unregister the logger metrics: " + e.getMessage());
+        } finally {
+            objectName = null;
+        }
+    }
+
+    public void recordPressure() {
+        pressureEvents.increment();
+    }
+
+    public void recordBatch(int size, long depthBeforeBatch) {
+        batches++;
+        batchEntries += size;
+        if (size > batchMax) {
+            batchMax = size;
+        }
+        if (depthBeforeBatch > peakDepth) {
+            peakDepth = depthBeforeBatch;
+        }
+    }
+
+    public void recordLatency(long latencyNanos) {
+        long latency = Math.max(0, latencyNanos);
+        writtenEntries++;
+        latencySumNanos += latency;
+        if (latency > latencyMaxNanos) {
+            latencyMaxNanos = latency;
+        }
+        int bucket = Long.SIZE - 1 - Long.numberOfLeadingZeros(latency | 1);
+        latencyHistogram.lazySet(bucket, latencyHistogram.get(bucket) + 1);
+    }
+
+    public void recordBytes(LogLevel level, long bytes) {
+        int index = level.ordinal();
+        bytesWritten.lazySet(index, bytesWritten.get(index) + bytes);
+    }
+
+    public String formatReport() {
+        return String.format("Logger stats: queue %d/%d (peak %d, %.1f%% used, %d pressure events), "
+                        + "written %d entries (latency avg %.1f us, p99 <= %d us, max %d us), "
+                        + "batches %d (avg %.1f, max %d), bytes Info=%d Warning=%d Error=%d, dropped Info=%d Warning=%d Error=%d",
+                getQueueDepth(), capacity, getPeakQueueDepth(), getQueueUtilization() * 100, getPressureEvents(),
+                getWrittenEntries(), getAverageLatencyMicros(), getLatencyP99Micros(), getMaxLatencyMicros(),
+                getBatches(), getAverageBatchSize(), getMaxBatchSize(),
+                getInfoBytesWritten(), getWarningBytesWritten(), getErrorBytesWritten(),
+                getInfoDropped(), getWarningDropped(), getErrorDropped());
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public long getQueueDepth() {
+        return depth.getAsLong();
+    }
+
+    @Override
+    public long getPeakQueueDepth() {
+        return peakDepth;
+    }
+
+    @Override
+    public double getQueueUtilization() {
+        return (double) getQueueDepth() / capacity;
+    }
+
+    @Override
+    public long getPressureEvents() {
+        return pressureEvents.sum();
+    }
+
+    @Override
+    public long getWrittenEntries() {
+        return writtenEntries;
+    }
+
+    @Override
+    public double getAverageLatencyMicros() {
+        long entries = writtenEntries;
+        return entries == 0 ? 0 : latencySumNanos / 1000.0 / entries;
+    }
+
+    @Override
+    public long getLatencyP99Micros() {
+        long total = 0;
+        for (int i = 0; i < latencyHistogram.length(); i++) {
+            total += latencyHistogram.get(i);
+        }
+        long threshold = total - total / 100;
+        long seen = 0;
+        for (int i = 0; i < latencyHistogram.length(); i++) {
+            seen += latencyHistogram.get(i);
+            if (seen >= threshold && seen > 0) {
+                return TimeUnit.NANOSECONDS.toMicros(i >= Long.SIZE - 2 ? Long.MAX_VALUE : (2L << i) - 1);
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public long getMaxLatencyMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(latencyMaxNanos);
+    }
+
+    @Override
+    public long getBatches() {
+        return batches;
+    }
+
+    @Override
+    public double getAverageBatchSize() {
+        long count = batches;
+        return count == 0 ? 0 : (double) batchEntries / count;
+    }
+
+    @Override
+    public long getMaxBatchSize() {
+        return batchMax;
+    }
+
+    @Override
+    public long getInfoBytesWritten() {
+        return bytesWritten.get(LogLevel.INFO.ordinal());
+    }
+
+    @Override
+    public long getWarningBytesWritten() {
+        return bytesWritten.get(LogLevel.WARNING.ordinal());
+    }
+
+    @Override
+    public long getErrorBytesWritten() {
+        return bytesWritten.get(LogLevel.ERROR.ordinal());
+    }
+
+    @Override
+    public long getInfoDropped() {
+        return dropCounters.getTotal(LogLevel.INFO);
+    }
+
+    @Override
+    public long getWarningDropped() {
+        return dropCounters.getTotal(LogLevel.WARNING);
+    }
+
+    @Override
+    public long getErrorDropped() {
+        return dropCounters.getTotal(LogLevel.ERROR);
+    }
+}
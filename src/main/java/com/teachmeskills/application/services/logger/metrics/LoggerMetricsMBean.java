@@ -0,0 +1,49 @@
+package com.teachmeskills.application.services.logger.metrics;
+/**
+ * The {@code LoggerMetricsMBean} interface is the JMX management interface of {@link LoggerMetrics}.
+
+ * Attributes:
+ * - Ring buffer: capacity, current and peak depth, utilization and the number of log calls made
+ *   while the buffer was under pressure (at least three quarters full)
+ * - Latency between the log call and the write of its entry: average, approximate 99th percentile and maximum
+ * - Write batches taken from the ring buffer: count, average and maximum size
+ * - Entries and bytes written, dropped entries per level
+ */
+public interface LoggerMetricsMBean {
+
+    int getCapacity();
+
+    long getQueueDepth();
+
+    long getPeakQueueDepth();
+
+    double getQueueUtilization();
+
+    long getPressureEvents();
+
+    long getWrittenEntries();
+
+    double getAverageLatencyMicros();
+
+    long getLatencyP99Micros();
+
+    long getMaxLatencyMicros();
+
+    long getBatches();
+
+    double getAverageBatchSize();
+
+    long getMaxBatchSize();
+
+    long getInfoBytesWritten();
+
+    long getWarningBytesWritten();
+
+    long getErrorBytesWritten();
+
+    long getInfoDropped();
+
+    long getWarningDropped();
+
+    long getErrorDropped();
+}
@@ -0,0 +1,236 @@
+package com.teachmeskills.application.services.logger.query;
+
+import com.teachmeskills.application.services.logger.LogLevel;
+import com.teachmeskills.application.services.logger.impl.LogSegmentIndex;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParsePosition;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static com.teachmeskills.application.utils.constant.FilePathConstants.*;
+/**
+ * The {@code LogQuery} class finds the log entries of a time range in the log files of {@code LoggerService},
+ * including rotated and compressed segments.
+
+ * Key Features:
+ * - Uses the sparse time index of each file ({@link LogSegmentIndex}) to skip files outside the range and
+ *   to start reading close to the beginning of the range instead of at the start of the file; rotated
+ *   segments are skipped when they end before the range, the active file only when it starts after it
+ * - Stops reading a file once its entries are past the end of the range
+ * - Understands both output formats: text lines (timestamp at the start of the line) and JSON lines
+ *   (the {@code epochMillis} field); stack trace lines belong to the entry before them
+ * - Filters by level (through the per-level log files) and by a substring of the caller location
+
+ * Usage Notes:
+ * - Text timestamps have second resolution; an entry matches if its second overlaps the range
+ * - Files without an index are read from the beginning
+
+ * Thread Safety:
+ * - Immutable; {@link #run(Consumer)} may be called by any number of threads
+ */
+public class LogQuery {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final String TEXT_LOCATION_MARKER = " | Location: ";
+    private static final String JSON_LOCATION_MARKER = "\"location\":\"";
+    private static final String JSON_EPOCH_MARKER = "\"epochMillis\":";
+    private static final DateTimeFormatter TEXT_TIMESTAMP =
+            DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss z yyyy", Locale.ENGLISH);
+
+    private final Path logDirectory;
+    private final long fromMillis;
+    private final long toMillis;
+    private final Set<LogLevel> levels;
+    private final String locationFilter;
+
+    public record Result(long matchedEntries, int scannedFiles, long scannedBytes) {
+    }
+
+    private static final class Scan {
+        private String timestampPrefix;
+        private long timestampMillis;
+        private boolean included;
+        private long matchedEntries;
+        private long scannedBytes;
+    }
+
+    public LogQuery(Path logDirectory, long fromMillis, long toMillis, Set<LogLevel> levels, String locationFilter) {
+        this.logDirectory = logDirectory;
+        this.fromMillis = fromMillis;
+        this.toMillis = toMillis;
+        this.levels = levels == null || levels.isEmpty() ? EnumSet.allOf(LogLevel.class) : EnumSet.copyOf(levels);
+        this.locationFilter = locationFilter == null || locationFilter.isBlank() ? null : locationFilter;
+    }
+
+    public static Path defaultLogDirectory() {
+        return Path.of(LOG_DIR);
+    }
+
+    public Result run(Consumer<String> output) throws IOException {
+        Scan scan = new Scan();
+        int scannedFiles = 0;
+        for (LogLevel level : levels) {
+            String activeName = Path.of(logPathOf(level)).getFileName().toString();
+            for (Path file : listFiles(activeName)) {
+                LogSegmentIndex.Lookup lookup = LogSegmentIndex.read(file);
+                boolean rotated = !file.getFileName().toString().equals(activeName);
+                if (!lookup.mayContain(fromMillis, toMillis, rotated)) {
+                    continue;
+                }
+                scanFile(file, lookup.startOffset(fromMillis), scan, output);
+                scannedFiles++;
+            }
+        }
+        return new Result(scan.matchedEntries, scannedFiles, scan.scannedBytes);
+    }
+
+    private void scanFile(Path file, long startOffset, Scan scan, Consumer<String> output) throws IOException {
+        long endMillis = toMillis + LogSegmentIndex.Lookup.orderingSlackMillis();
+        scan.included = false;
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(openAt(file, startOffset), StandardCharsets.UTF_8), READ_BUFFER_SIZE)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                scan.scannedBytes += line.length() + 1;
+                long timestamp = parseTimestamp(line, scan);
+                if (timestamp == Long.MIN_VALUE) {
+                    if (scan.included) {
+                        output.accept(line);
+                    }
+                    continue;
+                }
+                if (timestamp > endMillis) {
+                    break;
+                }
+
+                long entryEnd = line.startsWith("{") ? timestamp : timestamp + 999;
+                scan.included = entryEnd >= fromMillis && timestamp <= toMillis && matchesLocation(line);
+                if (scan.included) {
+                    scan.matchedEntries++;
+                    output.accept(line);
+                }
+            }
+        }
+    }
+
+    private static InputStream openAt(Path file, long offset) throws IOException {
+        if (file.getFileName().toString().endsWith(GZIP_SUFFIX)) {
+            InputStream input = new GZIPInputStream(Files.newInputStream(file), READ_BUFFER_SIZE);
+            try {
+                input.skipNBytes(offset);
+            } catch (IOException e) {
+                input.close();
+                throw e;
+            }
+            return input;
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        channel.position(Math.min(offset, channel.size()));
+        return Channels.newInputStream(channel);
+    }
+
+    private static long parseTimestamp(String line, Scan scan) {
+        if (line.startsWith("{")) {
+            int start = line.indexOf(JSON_EPOCH_MARKER);
+            if (start < 0) {
+                return Long.MIN_VALUE;
+            }
+            start += JSON_EPOCH_MARKER.length();
+            int end = start;
+            while (end < line.length() && Character.isDigit(line.charAt(end))) {
+                end++;
+            }
+            return end > start ? Long.parseLong(line, start, end, 10) : Long.MIN_VALUE;
+        }
+
+        if (scan.timestampPrefix != null && line.startsWith(scan.timestampPrefix)) {
+            return scan.timestampMillis;
+        }
+        try {
+            ParsePosition position = new ParsePosition(0);
+            LocalDateTime dateTime = LocalDateTime.from(TEXT_TIMESTAMP.parse(line, position));
+            scan.timestampPrefix = line.substring(0, position.getIndex());
+            scan.timestampMillis = dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            return scan.timestampMillis;
+        } catch (RuntimeException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private boolean matchesLocation(String line) {
+        if (locationFilter == null) {
+            return true;
+        }
+        String marker = line.startsWith("{") ? JSON_LOCATION_MARKER : TEXT_LOCATION_MARKER;
+        int start = line.indexOf(marker);
+        if (start < 0) {
+            return false;
+        }
+        start += marker.length();
+        int end = line.startsWith("{") ? line.indexOf('"', start) : line.length();
+        return line.substring(start, end < 0 ? line.length() : end).contains(locationFilter);
+    }
+
+    private List<Path> listFiles(String activeName) throws IOException {
+        int dot = activeName.lastIndexOf('.');
+        String baseName = dot > 0 ? activeName.substring(0, dot) : activeName;
+        String extension = dot > 0 ? activeName.substring(dot) : "";
+
+        List<Path> files = new ArrayList<>();
+        if (!Files.isDirectory(logDirectory)) {
+            return files;
+        }
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(logDirectory, baseName + ".*")) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                if (!name.equals(activeName) && (name.endsWith(extension) || name.endsWith(extension + GZIP_SUFFIX))) {
+                    files.add(entry);
+                }
+            }
+        }
+        files.sort(Comparator.comparingLong(LogQuery::lastModifiedMillis));
+        Path active = logDirectory.resolve(activeName);
+        if (Files.isRegularFile(active)) {
+            files.add(active);
+        }
+        return files;
+    }
+
+    private static long lastModifiedMillis(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static String logPathOf(LogLevel level) {
+        return switch (level) {
+            case INFO -> INFO_LOG_PATH;
+            case WARNING -> WARNING_LOG_PATH;
+            case ERROR -> ERROR_LOG_PATH;
+        };
+    }
+}
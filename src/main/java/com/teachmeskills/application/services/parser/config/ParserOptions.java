@@ -0,0 +1,86 @@
+package com.teachmeskills.application.services.parser.config;
+
+import com.teachmeskills.application.services.parser.quarantine.QuarantineMode;
+import com.teachmeskills.application.utils.config.ConfigurationLoader;
+
+import static com.teachmeskills.application.utils.constant.FilePathConstants.FILE_MANIFEST_NAME;
+import static com.teachmeskills.application.utils.constant.FilePathConstants.QUARANTINE_MANIFEST_NAME;
+/**
+ * The {@code ParserOptions} record groups the settings that control how {@code ParserService}
+ * walks and processes a document directory.
+
+ * Options:
+ * - {@code workerThreads}: Number of workers analyzing files; {@code 1} keeps sequential processing.
+ * - {@code useVirtualThreads}: Runs the workers on virtual threads instead of platform threads.
+ * - {@code incrementalMode}: Reuses results of unchanged files from the file manifest.
+ * - {@code manifestPath}: Location of the file manifest used by the incremental mode.
+ * - {@code streamingTraversal}: Hands files to processing while the directory is still being walked.
+ * - {@code traversalQueueCapacity}: Number of discovered files buffered ahead of processing.
+ * - {@code quarantineMode}: Whether rejected files are moved or only recorded ({@link QuarantineMode}).
+ * - {@code quarantineManifestPath}: Location of the manifest of quarantined files.
+ * - {@code quarantineBatchSize}: Maximum number of rejected files handled per quarantine batch.
+ * - {@code watchMode}: Keeps watching the directory after the initial run and ingests new or modified files.
+ * - {@code watchDebounceMillis}: Quiet period after the last change before the statistics exports are refreshed.
+ * - {@code yearFilter}: Years whose documents are processed ({@link YearFilter}); files of other years are skipped.
+ * - {@code snapshotDirectory}: Directory into which a binary snapshot of the statistics is saved after each run,
+ *   to be merged with the snapshots of other shards; {@code null} disables the snapshots.
+ * - {@code shardId}: Stable id of this shard, which names its snapshot file, so a rerun replaces the previous
+ *   snapshot of the shard; required when {@code snapshotDirectory} is set.
+
+ * Usage Notes:
+ * - {@link #fromConfiguration()} builds the options from {@link ConfigurationLoader};
+ *   {@link #fromConfiguration(String)} takes the shard id from the command line instead of the configuration.
+ * - Options with a snapshot directory but no shard id are rejected with an {@link IllegalArgumentException},
+ *   as two processes sharing a default id would overwrite each other's snapshot.
+ */
+public record ParserOptions(int workerThreads,
+                            boolean useVirtualThreads,
+                            boolean incrementalMode,
+                            String manifestPath,
+                            boolean streamingTraversal,
+                            int traversalQueueCapacity,
+                            QuarantineMode quarantineMode,
+                            String quarantineManifestPath,
+                            int quarantineBatchSize,
+                            boolean watchMode,
+                            long watchDebounceMillis,
+                            YearFilter yearFilter,
+                            String snapshotDirectory,
+                            String shardId) {
+
+    public ParserOptions {
+        workerThreads = Math.max(1, workerThreads);
+        traversalQueueCapacity = Math.max(1, traversalQueueCapacity);
+        quarantineMode = quarantineMode == null ? QuarantineMode.MOVE : quarantineMode;
+        quarantineBatchSize = Math.max(1, quarantineBatchSize);
+        watchDebounceMillis = Math.max(0, watchDebounceMillis);
+        yearFilter = yearFilter == null ? YearFilter.allYears() : yearFilter;
+        snapshotDirectory = snapshotDirectory == null || snapshotDirectory.isBlank() ? null : snapshotDirectory;
+        shardId = shardId == null || shardId.isBlank() ? null : shardId.trim();
+        if (snapshotDirectory != null && shardId == null) {
+            throw new IllegalArgumentException("STATS_SHARD_ID must be set when STATS_SNAPSHOT_DIR is configured");
+        }
+    }
+
+    public static ParserOptions fromConfiguration() {
+        return fromConfiguration(null);
+    }
+
+    public static ParserOptions fromConfiguration(String shardIdOverride) {
+        return new ParserOptions(
+                ConfigurationLoader.PARSER_WORKER_THREADS,
+                ConfigurationLoader.PARSER_VIRTUAL_THREADS,
+                ConfigurationLoader.INCREMENTAL_MODE,
+                FILE_MANIFEST_NAME,
+                ConfigurationLoader.STREAMING_TRAVERSAL,
+                ConfigurationLoader.TRAVERSAL_QUEUE_CAPACITY,
+                QuarantineMode.fromName(ConfigurationLoader.QUARANTINE_MODE, QuarantineMode.MOVE),
+                QUARANTINE_MANIFEST_NAME,
+                ConfigurationLoader.QUARANTINE_BATCH_SIZE,
+                ConfigurationLoader.WATCH_MODE,
+                ConfigurationLoader.WATCH_DEBOUNCE_MS,
+                YearFilter.fromSpecification(ConfigurationLoader.FILTER_YEAR, YearFilter.of(2024)),
+                ConfigurationLoader.STATS_SNAPSHOT_DIR,
+                shardIdOverride == null ? ConfigurationLoader.STATS_SHARD_ID : shardIdOverride);
+    }
+}
@@ -0,0 +1,173 @@
+package com.teachmeskills.application.services.parser.config;
+
+import com.teachmeskills.application.model.DocumentPeriod;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.StringJoiner;
+/**
+ * The {@code YearFilter} class describes the set of years whose documents {@code ParserService} processes.
+
+ * Key Features:
+ * - Parsed from a specification of single years and ranges separated by commas, for example
+ *   {@code 2024}, {@code 2021-2024} or {@code 1999,2023-2024}; {@code *} or {@code all} accepts every year
+ * - Any year of {@link DocumentPeriod#MIN_YEAR}..{@link DocumentPeriod#MAX_YEAR} may be used; the years are
+ *   kept as sorted, disjoint ranges
+ * - The years {@value #MASK_FIRST_YEAR}..{@value #MASK_LAST_YEAR} are additionally kept as one bit per year in
+ *   a single {@code long}, so for them a check is a shift and a mask; other years fall back to the ranges
+ * - The year of a file is taken from its name with {@link DocumentPeriod#fromFileName(String)}, the same
+ *   period the statistics use for their per-year rollups
+
+ * Usage Notes:
+ * - {@link #fromSpecification(String, YearFilter)} falls back to the given filter only when the specification
+ *   is blank; an invalid specification is rejected with an {@link IllegalArgumentException}
+ * - A period without a year is never accepted; {@code ParserService} rejects such files as having the wrong year
+
+ * Thread Safety:
+ * - Immutable
+ */
+public final class YearFilter {
+
+    private static final String ALL_YEARS = "*";
+    private static final int MASK_FIRST_YEAR = 2000;
+    private static final int MASK_LAST_YEAR = MASK_FIRST_YEAR + Long.SIZE - 1;
+
+    private final int[] ranges;
+    private final long mask;
+
+    private YearFilter(int[] ranges) {
+        this.ranges = ranges;
+        long bits = 0;
+        for (int i = 0; i < ranges.length; i += 2) {
+            int from = Math.max(ranges[i], MASK_FIRST_YEAR);
+            int to = Math.min(ranges[i + 1], MASK_LAST_YEAR);
+            for (int year = from; year <= to; year++) {
+                bits |= 1L << (year - MASK_FIRST_YEAR);
+            }
+        }
+        this.mask = bits;
+    }
+
+    public static YearFilter allYears() {
+        return range(DocumentPeriod.MIN_YEAR, DocumentPeriod.MAX_YEAR);
+    }
+
+    public static YearFilter of(int year) {
+        return range(year, year);
+    }
+
+    public static YearFilter range(int fromYear, int toYear) {
+        checkYear(fromYear);
+        checkYear(toYear);
+        if (fromYear > toYear) {
+            throw new IllegalArgumentException("Invalid year range: " + fromYear + "-" + toYear);
+        }
+        return new YearFilter(new int[]{fromYear, toYear});
+    }
+
+    public static YearFilter parse(String specification) {
+        String trimmed = specification == null ? "" : specification.trim();
+        if (trimmed.equals(ALL_YEARS) || trimmed.equalsIgnoreCase("all")) {
+            return allYears();
+        }
+
+        List<int[]> ranges = new ArrayList<>();
+        for (String part : trimmed.split(",")) {
+            String item = part.trim();
+            if (item.isEmpty()) {
+                continue;
+            }
+            int dash = item.indexOf('-', 1);
+            YearFilter filter = dash < 0
+                    ? of(parseYear(item))
+                    : range(parseYear(item.substring(0, dash)), parseYear(item.substring(dash + 1)));
+            ranges.add(filter.ranges);
+        }
+        if (ranges.isEmpty()) {
+            throw new IllegalArgumentException("No years in the filter: " + specification);
+        }
+        return new YearFilter(union(ranges));
+    }
+
+    public static YearFilter fromSpecification(String specification, YearFilter defaultFilter) {
+        if (specification == null || specification.isBlank()) {
+            return defaultFilter;
+        }
+        try {
+            return parse(specification);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid year filter '" + specification + "': " + e.getMessage(), e);
+        }
+    }
+
+    public boolean accepts(int year) {
+        if (year >= MASK_FIRST_YEAR && year <= MASK_LAST_YEAR) {
+            return (mask >>> (year - MASK_FIRST_YEAR) & 1) != 0;
+        }
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (year >= ranges[i] && year <= ranges[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean accepts(DocumentPeriod period) {
+        return period.hasYear() && accepts(period.year());
+    }
+
+    private static int[] union(List<int[]> ranges) {
+        ranges.sort(Comparator.comparingInt(range -> range[0]));
+        int[] merged = new int[ranges.size() * 2];
+        int length = 0;
+        for (int[] range : ranges) {
+            if (length > 0 && range[0] <= merged[length - 1] + 1) {
+                merged[length - 1] = Math.max(merged[length - 1], range[1]);
+            } else {
+                merged[length++] = range[0];
+                merged[length++] = range[1];
+            }
+        }
+        return Arrays.copyOf(merged, length);
+    }
+
+    private static int parseYear(String text) {
+        try {
+            int year = Integer.parseInt(text.trim());
+            checkYear(year);
+            return year;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid year: " + text);
+        }
+    }
+
+    private static void checkYear(int year) {
+        if (year < DocumentPeriod.MIN_YEAR || year > DocumentPeriod.MAX_YEAR) {
+            throw new IllegalArgumentException("Unsupported year: " + year);
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof YearFilter filter && Arrays.equals(filter.ranges, ranges);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(ranges);
+    }
+
+    @Override
+    public String toString() {
+        if (ranges.length == 2 && ranges[0] == DocumentPeriod.MIN_YEAR && ranges[1] == DocumentPeriod.MAX_YEAR) {
+            return ALL_YEARS;
+        }
+        StringJoiner joiner = new StringJoiner(",");
+        for (int i = 0; i < ranges.length; i += 2) {
+            joiner.add(ranges[i] == ranges[i + 1] ? Integer.toString(ranges[i]) : ranges[i] + "-" + ranges[i + 1]);
+        }
+        return joiner.toString();
+    }
+}
@@ -1,26 +1,39 @@
 package com.teachmeskills.application.services.parser.impl;
 
-import com.teachmeskills.application.exception.ParserServiceException;
+import com.teachmeskills.application.exception.FileAnalyzerException;
 import com.teachmeskills.application.exception.SessionManagerException;
 import com.teachmeskills.application.exception.StatisticsExportException;
+import com.teachmeskills.application.model.DocumentPeriod;
 import com.teachmeskills.application.services.analyzer.impl.FileAnalyzer;
+import com.teachmeskills.application.services.analyzer.result.FileAnalysisResult;
 import com.teachmeskills.application.services.logger.ILogger;
 import com.teachmeskills.application.services.parser.IParser;
+import com.teachmeskills.application.services.parser.config.ParserOptions;
+import com.teachmeskills.application.services.parser.config.YearFilter;
+import com.teachmeskills.application.services.parser.manifest.FileManifest;
+import com.teachmeskills.application.services.parser.pipeline.DocumentPathQueue;
+import com.teachmeskills.application.services.parser.pipeline.DocumentWorkerPool;
+import com.teachmeskills.application.services.parser.quarantine.QuarantineMode;
+import com.teachmeskills.application.services.parser.quarantine.QuarantineService;
 import com.teachmeskills.application.services.parser.stats.InvalidFileStats;
 import com.teachmeskills.application.session.ISession;
 import com.teachmeskills.application.services.statistic.impl.StatsService;
-import com.teachmeskills.application.utils.config.ConfigurationLoader;
+import com.teachmeskills.application.services.statistic.snapshot.ShardSnapshot;
+import com.teachmeskills.application.services.statistic.snapshot.ShardSnapshotCodec;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import static com.teachmeskills.application.utils.constant.FilePathConstants.AMOUNT_STATS_FILE_NAME;
 import static com.teachmeskills.application.utils.constant.FilePathConstants.INVALID_STATS_FILE_NAME;
+import static com.teachmeskills.application.utils.constant.FilePathConstants.PERIOD_STATS_FILE_NAME;
 /**
  * The {@code ParserService} class provides a comprehensive implementation of the {@code IParser} interface.
  * It is responsible for parsing files within a specified directory and categorizing them
@@ -38,7 +51,7 @@ import static com.teachmeskills.application.utils.constant.FilePathConstants.INV
  * - Access token validation before file processing
  * - File and directory validation
  * - Detailed logging of significant events and errors
- * - File analysis for content validity
+ * - Single-pass file analysis for content validity and amount extraction
  * - Handling of invalid files via specified reasons and relocation to the invalid folder
  * - Reporting and exporting statistics at the end of operations
 
@@ -61,32 +74,100 @@ import static com.teachmeskills.application.utils.constant.FilePathConstants.INV
  * Implementation Details:
  * - Relocates invalid files into a subdirectory ("invalid") with assigned reasons
  * - Supports identification of invalid files by checking for empty files,
- *   incorrect file extensions, non-compliance with year filters, or parsing errors
+ *   incorrect file extensions, missing years in file names, or parsing errors
  * - Exports processing results into output files
 
  * Limitations:
  * - Only textual files ("*.txt") are processed
- * - Requires a pre-defined year filter in file names for validation
+ * - Requires a year in file names for validation
+
+ * Year Filter:
+ * - The year of a file is read from its name ({@link DocumentPeriod}) and checked against the
+ *   {@link YearFilter} of the options, which may hold a single year, a range or a set of years
+ * - Files of accepted years are processed in the same traversal and routed to the rollups of their
+ *   year in {@link StatsService}; years without a rollup of their own share the "other years" rollup
+ * - Files of other years are skipped: they are counted and logged, but neither processed nor moved
+ *   into the "invalid" folder; files without a year in their name are still rejected as having the wrong year
+
+ * Parallel Processing:
+ * - With more than one worker thread configured, files are analyzed concurrently by a
+ *   {@link DocumentWorkerPool}, optionally on virtual threads
+ * - With a single worker thread, files are processed one after another on the caller thread
+
+ * Streaming Traversal:
+ * - When enabled, a {@link DocumentPathQueue} walks the directory on a background thread and hands
+ *   files to processing through a bounded queue as they are discovered
+ * - Memory stays flat regardless of the directory size, and the "invalid" folder is not traversed
+
+ * Incremental Mode:
+ * - When enabled, a {@link FileManifest} remembers the size, modification time, content hash and
+ *   extracted documents of every valid file
+ * - Unchanged files are not opened again; their cached documents are fed straight into {@link StatsService}
+ * - The manifest is loaded before and saved after each run
+
+ * Quarantine:
+ * - Rejected files are handed to a {@link QuarantineService}, which moves them into the "invalid"
+ *   folder in batches on a background thread and records them in a quarantine manifest
+ * - In virtual quarantine mode rejected files are only recorded in the manifest and stay in place
+ * - The run waits for the quarantine to finish before the reports are generated
+
+ * Watch Mode:
+ * - {@link #ingestChangedFile(File, QuarantineService)} processes a single new or modified file after
+ *   the initial run; the documents previously recorded for that file are retracted first, so the
+ *   totals always reflect the current content of the directory
+ * - {@link #retractRemovedFile(File)} removes the contribution of a deleted file
+ * - A rejected file is also dropped from {@link InvalidFileStats} before it is analyzed again, and when it is
+ *   deleted in virtual quarantine mode; in move mode its disappearance is the quarantine's own move, so it
+ *   stays in the report
+ * - {@link #exportStatistics()} refreshes the statistics exports without printing the reports
+ * - The file manifest is kept in memory in watch mode even when the incremental mode is disabled
+ * - Largest documents are recorded and retracted by the path of their file relative to the document
+ *   directory, so files of the same name in different subfolders do not affect each other
+
+ * Sharded Runs:
+ * - With a snapshot directory configured, a binary {@link ShardSnapshot} of the statistics and the invalid
+ *   files is saved into it after every export, in a file named after the shard id of the options; a rerun of
+ *   the shard replaces its previous snapshot
+ * - Several processes can each parse a part of an archive into the same (shared) directory; their snapshots
+ *   are then combined into the reports of the whole archive by {@code StatisticsMergeTool}
 
  * Thread Safety:
- * - This implementation assumes single-threaded operation and may require adjustments for multi-threaded scenarios
+ * - File counters are atomic and moves into the invalid folder are performed by a single
+ *   quarantine thread, so the totals reported by {@link StatsService} match the sequential mode
  */
 public class ParserService implements IParser {
 
+    public static final String INVALID_DIRECTORY_NAME = "invalid";
+
     private final ISession session;
     private final ILogger logger;
     private final StatsService statistics;
     private final InvalidFileStats invalidFileStats;
+    private final ParserOptions options;
+    private final FileManifest manifest;
+    private final Path snapshotFile;
+    private volatile Path documentRoot;
 
-    private int totalProcessedFiles = 0;
-    private int validFiles = 0;
-    private int invalidFiles = 0;
+    private final AtomicInteger totalProcessedFiles = new AtomicInteger();
+    private final AtomicInteger validFiles = new AtomicInteger();
+    private final AtomicInteger invalidFiles = new AtomicInteger();
+    private final AtomicInteger unchangedFiles = new AtomicInteger();
+    private final AtomicInteger skippedFiles = new AtomicInteger();
 
     public ParserService(ISession session, ILogger logger, StatsService statistics) {
+        this(session, logger, statistics, ParserOptions.fromConfiguration());
+    }
+
+    public ParserService(ISession session, ILogger logger, StatsService statistics, ParserOptions options) {
         this.session = session;
         this.logger = logger;
         this.statistics = statistics;
         this.invalidFileStats = new InvalidFileStats();
+        this.options = options;
+        this.manifest = options.incrementalMode() || options.watchMode() ? new FileManifest() : null;
+        this.snapshotFile = options.snapshotDirectory() == null
+                ? null
+                : Paths.get(options.snapshotDirectory(), ShardSnapshotCodec.fileName(options.shardId()));
     }
 
     @Override
@@ -105,9 +186,12 @@ public class ParserService implements IParser {
         }
 
         File directory = new File(directoryPath);
-        File invalidDirectory = new File(directoryPath, "invalid");
+        documentRoot = directory.toPath().toAbsolutePath().normalize();
+        File invalidDirectory = new File(directoryPath, INVALID_DIRECTORY_NAME);
 
-        createInvalidDirectory(invalidDirectory);
+        if (options.quarantineMode() == QuarantineMode.MOVE) {
+            createInvalidDirectory(invalidDirectory);
+        }
         if (!isValidDirectory(directory)) {
             logger.logError("The specified directory does not exist or is not a directory: " + directoryPath);
             System.out.println("\nTry to specify the parsing directory again..");
@@ -116,16 +200,26 @@ public class ParserService implements IParser {
 
         logger.logInfo("The beginning of parsing files in a directory: " + directoryPath);
         System.out.println("\nThe beginning of parsing files in a directory: " + directoryPath);
-        try (Stream<Path> paths = Files.walk(directory.toPath())) {
-            List<Path> allFiles = paths.filter(Files::isRegularFile).toList();
-
-            for (Path path : allFiles) {
-                handleFileProcessing(path.toFile(), invalidDirectory);
+        loadManifest();
+        try {
+            QuarantineService quarantine = openQuarantine(invalidDirectory, false);
+            try {
+                if (options.streamingTraversal()) {
+                    processFilesStreaming(directory.toPath(), invalidDirectory, quarantine);
+                } else {
+                    processFilesFromList(directory.toPath(), quarantine);
+                }
+            } finally {
+                quarantine.close();
             }
+            reportQuarantineResults(quarantine);
 
+            saveManifest();
             logProcessingResults();
             statistics.displayStatistics();
             statistics.exportStatisticsToFile(AMOUNT_STATS_FILE_NAME);
+            statistics.exportPeriodStatisticsToFile(PERIOD_STATS_FILE_NAME);
+            saveSnapshot();
             System.out.println("\nStatistics have been saved successfully.");
             logger.logInfo("Statistics have been saved successfully.");
 
@@ -136,10 +230,165 @@ public class ParserService implements IParser {
         }
     }
 
+    public QuarantineService openQuarantine(File invalidDirectory, boolean appendToManifest) {
+        QuarantineService quarantine = new QuarantineService(invalidDirectory.toPath(),
+                Paths.get(options.quarantineManifestPath()), options.quarantineMode(), options.quarantineBatchSize(),
+                appendToManifest, logger);
+        quarantine.start();
+        return quarantine;
+    }
+
+    public void ingestChangedFile(File file, QuarantineService quarantine) {
+        if (!file.isFile()) {
+            retractRemovedFile(file);
+            return;
+        }
+
+        try {
+            if (manifest != null && manifest.findUnchanged(file).isPresent()) {
+                return;
+            }
+        } catch (IOException e) {
+            logger.logWarning("The file could not be compared with the manifest: " + file.getName() + " - " + e.getMessage());
+        }
+
+        retractRemovedFile(file);
+        retractInvalidFile(file);
+        handleFileProcessing(file, quarantine);
+    }
+
+    public void retractRemovedFile(File file) {
+        if (options.quarantineMode() == QuarantineMode.VIRTUAL) {
+            retractInvalidFile(file);
+        }
+        if (manifest == null) {
+            return;
+        }
+        manifest.remove(file).ifPresent(entry -> {
+            DocumentPeriod period = DocumentPeriod.fromFileName(file.getName());
+            entry.documents().forEach(document -> statistics.retract(document, period));
+            statistics.retractLargestDocuments(documentPath(file));
+            validFiles.decrementAndGet();
+            logger.logInfo("The previous results of the file have been retracted: " + file.getName());
+        });
+    }
+
+    private void retractInvalidFile(File file) {
+        if (invalidFileStats.removeInvalidFile(documentPath(file))) {
+            invalidFiles.decrementAndGet();
+            logger.logInfo("The previous rejection of the file has been retracted: " + file.getName());
+        }
+    }
+
+    public void exportStatistics() {
+        saveManifest();
+        invalidFileStats.exportReportToFile(INVALID_STATS_FILE_NAME);
+        try {
+            statistics.exportStatisticsToFile(AMOUNT_STATS_FILE_NAME);
+            statistics.exportPeriodStatisticsToFile(PERIOD_STATS_FILE_NAME);
+            saveSnapshot();
+        } catch (StatisticsExportException e) {
+            logger.logError("Error saving statistics: " + e.getMessage());
+        }
+    }
+
+    private void saveSnapshot() throws StatisticsExportException {
+        if (snapshotFile == null) {
+            return;
+        }
+        ShardSnapshotCodec.save(ShardSnapshot.capture(options.shardId(), statistics, invalidFileStats), snapshotFile);
+        logger.logInfo("The statistics snapshot has been saved: " + snapshotFile);
+    }
+
     private void resetCounters() {
-        totalProcessedFiles = 0;
-        validFiles = 0;
-        invalidFiles = 0;
+        totalProcessedFiles.set(0);
+        validFiles.set(0);
+        invalidFiles.set(0);
+        unchangedFiles.set(0);
+        skippedFiles.set(0);
+    }
+
+    private void loadManifest() {
+        if (!options.incrementalMode()) {
+            return;
+        }
+        try {
+            manifest.load(Paths.get(options.manifestPath()));
+            logger.logInfo("The file manifest has been loaded: " + manifest.size() + " entries");
+        } catch (IOException e) {
+            logger.logWarning("The file manifest could not be loaded, all files will be analyzed: " + e.getMessage());
+        }
+    }
+
+    private void saveManifest() {
+        if (!options.incrementalMode()) {
+            return;
+        }
+        try {
+            manifest.save(Paths.get(options.manifestPath()));
+            logger.logInfo("The file manifest has been saved: " + options.manifestPath());
+        } catch (IOException e) {
+            logger.logError("The file manifest could not be saved: " + e.getMessage());
+        }
+    }
+
+    private boolean isParallelProcessing() {
+        return options.workerThreads() > 1 || options.useVirtualThreads();
+    }
+
+    private void processFilesFromList(Path directory, QuarantineService quarantine) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            List<Path> allFiles = paths.filter(Files::isRegularFile).toList();
+
+            if (isParallelProcessing()) {
+                processFilesInParallel(allFiles, quarantine);
+            } else {
+                for (Path path : allFiles) {
+                    handleFileProcessing(path.toFile(), quarantine);
+                }
+            }
+        }
+    }
+
+    private void processFilesStreaming(Path directory, File invalidDirectory, QuarantineService quarantine) throws IOException {
+        logger.logInfo("Streaming traversal with a queue of " + options.traversalQueueCapacity() + " files");
+
+        try (DocumentPathQueue pathQueue = new DocumentPathQueue(
+                directory, invalidDirectory.toPath(), options.traversalQueueCapacity(), logger)) {
+            pathQueue.start();
+
+            if (isParallelProcessing()) {
+                try (DocumentWorkerPool workerPool = new DocumentWorkerPool(options.workerThreads(), options.useVirtualThreads())) {
+                    for (int i = 0; i < options.workerThreads(); i++) {
+                        workerPool.submit(() -> drainPathQueue(pathQueue, quarantine));
+                    }
+                    workerPool.awaitCompletion();
+                }
+            } else {
+                drainPathQueue(pathQueue, quarantine);
+            }
+
+            pathQueue.rethrowFailure();
+        }
+    }
+
+    private void drainPathQueue(DocumentPathQueue pathQueue, QuarantineService quarantine) {
+        Path path;
+        while ((path = pathQueue.take()) != null) {
+            handleFileProcessing(path.toFile(), quarantine);
+        }
+    }
+
+    private void processFilesInParallel(List<Path> files, QuarantineService quarantine) {
+        logger.logInfo("Parallel processing with " + options.workerThreads() + " worker(s)" +
+                (options.useVirtualThreads() ? " on virtual threads" : ""));
+
+        try (DocumentWorkerPool workerPool = new DocumentWorkerPool(options.workerThreads(), options.useVirtualThreads())) {
+            for (Path path : files) {
+                workerPool.submit(() -> handleFileProcessing(path.toFile(), quarantine));
+            }
+            workerPool.awaitCompletion();
+        }
     }
 
     private void createInvalidDirectory(File invalidDirectory) {
@@ -152,21 +401,27 @@ public class ParserService implements IParser {
         return directory.exists() && directory.isDirectory();
     }
 
-    private void handleFileProcessing(File file, File invalidDirectory) {
-        totalProcessedFiles++;
+    private void handleFileProcessing(File file, QuarantineService quarantine) {
+        totalProcessedFiles.incrementAndGet();
 
-        if (isValidFileToProcess(file)) {
-            processValidFile(file, invalidDirectory);
+        DocumentPeriod period = DocumentPeriod.fromFileName(file.getName());
+        if (period.hasYear() && !options.yearFilter().accepts(period)) {
+            skippedFiles.incrementAndGet();
+            logger.logInfo("Skipped file of year " + period.year() + " outside the year filter: " + file.getName());
+            return;
+        }
+        if (isValidFileToProcess(file, period)) {
+            processValidFile(file, quarantine);
         } else {
-            moveToInvalidFolder(file, invalidDirectory, determineInvalidReason(file));
+            moveToInvalidFolder(file, quarantine, determineInvalidReason(file, period));
         }
     }
 
-    private InvalidFileStats.InvalidReason determineInvalidReason(File file) {
+    private InvalidFileStats.InvalidReason determineInvalidReason(File file, DocumentPeriod period) {
         if (file.length() == 0) {
             return InvalidFileStats.InvalidReason.EMPTY_FILE;
         }
-        if (!file.getName().contains(ConfigurationLoader.FILTER_YEAR)) {
+        if (!period.hasYear()) {
             return InvalidFileStats.InvalidReason.WRONG_YEAR;
         }
         if (!file.getName().endsWith(".txt")) {
@@ -175,55 +430,99 @@ public class ParserService implements IParser {
         return InvalidFileStats.InvalidReason.INCORRECT_CONTENT;
     }
 
-    private boolean isValidFileToProcess(File file) {
-        return file.getName().contains(ConfigurationLoader.FILTER_YEAR) &&
+    private boolean isValidFileToProcess(File file, DocumentPeriod period) {
+        return period.hasYear() &&
                 file.getName().endsWith(".txt") &&
                 file.length() > 0;
     }
 
-    private void processValidFile(File file, File invalidDirectory) {
+    private void processValidFile(File file, QuarantineService quarantine) {
         try {
             FileAnalyzer fileAnalyzer = new FileAnalyzer(statistics , logger);
+            if (reuseUnchangedFile(file, fileAnalyzer)) {
+                return;
+            }
+
+            FileAnalysisResult result = fileAnalyzer.analyzeFile(file, documentPath(file));
 
-            if (!fileAnalyzer.checkFileContentValidity(file)) {
-                moveToInvalidFolder(file, invalidDirectory, InvalidFileStats.InvalidReason.INCORRECT_CONTENT);
+            if (!result.valid()) {
+                InvalidFileStats.InvalidReason reason = determineRejectionReason(result.rejectionType());
+                if (reason == InvalidFileStats.InvalidReason.PARSING_ERROR) {
+                    logger.logError("Error processing the file " + file.getName() + ": " + result.rejectionMessage());
+                }
+                moveToInvalidFolder(file, quarantine, reason);
                 return;
             }
 
-            fileAnalyzer.performFileAnalysis(file);
-            validFiles++;
+            validFiles.incrementAndGet();
+            if (manifest != null) {
+                manifest.update(file, result.documents(), result.lineNumbers());
+            }
             logger.logInfo("The file has been processed successfully: " + file.getName());
 
         } catch (Exception e) {
-            moveToInvalidFolder(file, invalidDirectory, InvalidFileStats.InvalidReason.PARSING_ERROR);
+            moveToInvalidFolder(file, quarantine, InvalidFileStats.InvalidReason.PARSING_ERROR);
             logger.logError("Error processing the file " + file.getName() + ": " + e.getMessage());
         }
     }
 
-    private void moveToInvalidFolder(File file, File invalidDirectory, InvalidFileStats.InvalidReason reason) {
-        try {
-            Path source = file.toPath();
-            Path destination = new File(invalidDirectory, file.getName()).toPath();
-            Files.move(source, destination, StandardCopyOption.REPLACE_EXISTING);
+    private boolean reuseUnchangedFile(File file, FileAnalyzer fileAnalyzer) throws IOException {
+        if (manifest == null) {
+            return false;
+        }
 
-            invalidFileStats.recordInvalidFile(reason, file.getName());
-            invalidFiles++;
-            logger.logInfo("The file has been moved to the invalid folder: " + file.getName());
-        } catch (IOException e) {
-            logger.logError("The file could not be moved " + file.getName() + ": " + e.getMessage());
-            try {
-                throw new ParserServiceException(ParserServiceException.Type.FILE_MOVE_ERROR, e);
-            } catch (ParserServiceException ex) {
-                throw new RuntimeException(ex);
-            }
+        Optional<FileManifest.ManifestEntry> entry = manifest.findUnchanged(file);
+        if (entry.isEmpty()) {
+            return false;
+        }
+
+        fileAnalyzer.recordDocuments(documentPath(file), entry.get().documents(), entry.get().lineNumbers(),
+                DocumentPeriod.fromFileName(file.getName()));
+        validFiles.incrementAndGet();
+        unchangedFiles.incrementAndGet();
+        logger.logInfo("The file is unchanged, cached results are used: " + file.getName());
+        return true;
+    }
+
+    private String documentPath(File file) {
+        Path path = file.toPath().toAbsolutePath().normalize();
+        Path root = documentRoot;
+        if (root == null || !path.startsWith(root)) {
+            return path.toString();
+        }
+        return root.relativize(path).toString().replace(File.separatorChar, '/');
+    }
+
+    private InvalidFileStats.InvalidReason determineRejectionReason(FileAnalyzerException.Type rejectionType) {
+        return rejectionType == FileAnalyzerException.Type.NO_VALID_LINES
+                ? InvalidFileStats.InvalidReason.INCORRECT_CONTENT
+                : InvalidFileStats.InvalidReason.PARSING_ERROR;
+    }
+
+    private void moveToInvalidFolder(File file, QuarantineService quarantine, InvalidFileStats.InvalidReason reason) {
+        quarantine.submit(file, reason);
+        invalidFileStats.recordInvalidFile(reason, documentPath(file));
+        invalidFiles.incrementAndGet();
+    }
+
+    private void reportQuarantineResults(QuarantineService quarantine) {
+        logger.logInfo("Quarantine (" + quarantine.getMode() + ") completed: " + quarantine.getQuarantinedFiles() +
+                " file(s) quarantined, " + quarantine.getFailedFiles() + " failed");
+        if (quarantine.getFailedFiles() > 0) {
+            logger.logError(quarantine.getFailedFiles() + " file(s) could not be quarantined, see "
+                    + options.quarantineManifestPath());
         }
     }
 
     private void logProcessingResults() {
         System.out.println("\n======== FILE PROCESSING RESULTS ========");
-        System.out.println("Total files: " + totalProcessedFiles);
-        System.out.println("Valid files: " + validFiles);
-        System.out.println("Invalid files: " + invalidFiles);
+        System.out.println("Total files: " + totalProcessedFiles.get());
+        System.out.println("Valid files: " + validFiles.get());
+        System.out.println("Invalid files: " + invalidFiles.get());
+        System.out.println("Skipped files (outside years " + options.yearFilter() + "): " + skippedFiles.get());
+        if (manifest != null) {
+            System.out.println("Unchanged files (cached): " + unchangedFiles.get());
+        }
 
         invalidFileStats.generateDetailedReport();
         invalidFileStats.exportReportToFile(INVALID_STATS_FILE_NAME);
@@ -0,0 +1,210 @@
+package com.teachmeskills.application.services.parser.manifest;
+
+import com.teachmeskills.application.model.DocumentType;
+import com.teachmeskills.application.model.IDocument;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+/**
+ * The {@code FileManifest} class keeps an on-disk record of every successfully analyzed file,
+ * so that unchanged files can be skipped on the next run.
+
+ * Each entry stores:
+ * - The absolute path of the file
+ * - Its size and last modification time
+ * - A SHA-256 hash of its content
+ * - The documents (type, amount and line number) extracted from it
+
+ * Change Detection:
+ * - A file with the same size and modification time is considered unchanged and is not opened
+ * - A file with the same size but a different modification time is hashed; when the hash still
+ *   matches, the cached entry is reused and its modification time refreshed
+ * - Any other file is treated as new or changed and must be analyzed again
+ * - {@link #remove(File)} drops the entry of a changed or deleted file and returns it, so the
+ *   documents it contributed can be retracted from the statistics
+
+ * File Format:
+ * - A plain text file with a header line followed by one tab-separated line per file:
+ *   {@code path, size, modification time, hash, documents}
+ * - Documents are written as a comma-separated list of {@code Type:amount@line} items, with the amount
+ *   in minor units (cents)
+ * - A manifest with a different header (an older format) is ignored, so all files are analyzed again
+
+ * Thread Safety:
+ * - Entries are kept in a {@link ConcurrentHashMap}, so lookups and updates may be performed
+ *   by several parser workers at once
+ * - {@link #load(Path)} and {@link #save(Path)} are expected to be called outside of processing
+ */
+public class FileManifest {
+
+    private static final String HEADER = "# financial-analyzer file manifest v3";
+    private static final String FIELD_SEPARATOR = "\t";
+    private static final String DOCUMENT_SEPARATOR = ",";
+    private static final String AMOUNT_SEPARATOR = ":";
+    private static final String LINE_SEPARATOR = "@";
+
+    public record ManifestEntry(String path, long size, long lastModified, String contentHash,
+                                List<IDocument> documents, List<Integer> lineNumbers) {
+
+        public ManifestEntry {
+            documents = List.copyOf(documents);
+            lineNumbers = List.copyOf(lineNumbers);
+        }
+    }
+
+    private final Map<String, ManifestEntry> entries = new ConcurrentHashMap<>();
+    private final Set<String> seenPaths = ConcurrentHashMap.newKeySet();
+
+    public void load(Path manifestPath) throws IOException {
+        entries.clear();
+        seenPaths.clear();
+        if (!Files.exists(manifestPath)) {
+            return;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(manifestPath, StandardCharsets.UTF_8)) {
+            if (!HEADER.equals(reader.readLine())) {
+                return;
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                ManifestEntry entry = parseEntry(line);
+                entries.put(entry.path(), entry);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupted file manifest: " + manifestPath, e);
+        }
+    }
+
+    public void save(Path manifestPath) throws IOException {
+        Path parent = manifestPath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        Path temporaryPath = manifestPath.resolveSibling(manifestPath.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporaryPath, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (String path : seenPaths) {
+                ManifestEntry entry = entries.get(path);
+                if (entry != null) {
+                    writer.write(formatEntry(entry));
+                    writer.newLine();
+                }
+            }
+        }
+        Files.move(temporaryPath, manifestPath, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public Optional<ManifestEntry> findUnchanged(File file) throws IOException {
+        String path = keyOf(file);
+        ManifestEntry entry = entries.get(path);
+        if (entry == null || entry.size() != file.length()) {
+            return Optional.empty();
+        }
+
+        if (entry.lastModified() != file.lastModified()) {
+            if (!entry.contentHash().equals(hashContent(file))) {
+                return Optional.empty();
+            }
+            entry = new ManifestEntry(path, entry.size(), file.lastModified(), entry.contentHash(),
+                    entry.documents(), entry.lineNumbers());
+            entries.put(path, entry);
+        }
+
+        seenPaths.add(path);
+        return Optional.of(entry);
+    }
+
+    public void update(File file, List<IDocument> documents, List<Integer> lineNumbers) throws IOException {
+        String path = keyOf(file);
+        entries.put(path, new ManifestEntry(path, file.length(), file.lastModified(), hashContent(file),
+                documents, lineNumbers));
+        seenPaths.add(path);
+    }
+
+    public Optional<ManifestEntry> remove(File file) {
+        String path = keyOf(file);
+        seenPaths.remove(path);
+        return Optional.ofNullable(entries.remove(path));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private String keyOf(File file) {
+        return file.getAbsoluteFile().toPath().normalize().toString();
+    }
+
+    private String hashContent(File file) throws IOException {
+        try (InputStream input = Files.newInputStream(file.toPath())) {
+            return DigestUtils.sha256Hex(input);
+        }
+    }
+
+    private String formatEntry(ManifestEntry entry) {
+        List<String> documents = new ArrayList<>(entry.documents().size());
+        for (int i = 0; i < entry.documents().size(); i++) {
+            IDocument document = entry.documents().get(i);
+            documents.add(document.getType().getDisplayName() + AMOUNT_SEPARATOR + document.getTotalAmountInMinorUnits()
+                    + LINE_SEPARATOR + entry.lineNumbers().get(i));
+        }
+        return String.join(FIELD_SEPARATOR,
+                entry.path(),
+                Long.toString(entry.size()),
+                Long.toString(entry.lastModified()),
+                entry.contentHash(),
+                String.join(DOCUMENT_SEPARATOR, documents));
+    }
+
+    private ManifestEntry parseEntry(String line) {
+        String[] fields = line.split(FIELD_SEPARATOR, -1);
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("Unexpected number of fields: " + fields.length);
+        }
+
+        List<IDocument> documents = new ArrayList<>();
+        List<Integer> lineNumbers = new ArrayList<>();
+        if (!fields[4].isEmpty()) {
+            for (String document : fields[4].split(DOCUMENT_SEPARATOR)) {
+                int lineSeparator = document.lastIndexOf(LINE_SEPARATOR);
+                if (lineSeparator < 0) {
+                    throw new IllegalArgumentException("Invalid document entry: " + document);
+                }
+                documents.add(parseDocument(document.substring(0, lineSeparator)));
+                lineNumbers.add(Integer.parseInt(document.substring(lineSeparator + 1)));
+            }
+        }
+        return new ManifestEntry(fields[0], Long.parseLong(fields[1]), Long.parseLong(fields[2]), fields[3],
+                documents, lineNumbers);
+    }
+
+    private IDocument parseDocument(String document) {
+        int separator = document.indexOf(AMOUNT_SEPARATOR);
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid document entry: " + document);
+        }
+        long amount = Long.parseLong(document.substring(separator + 1));
+        return DocumentType.fromDisplayName(document.substring(0, separator)).createDocument(amount);
+    }
+}
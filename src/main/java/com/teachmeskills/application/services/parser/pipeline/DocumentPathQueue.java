@@ -0,0 +1,127 @@
+package com.teachmeskills.application.services.parser.pipeline;
+
+import com.teachmeskills.application.services.logger.ILogger;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+/**
+ * The {@code DocumentPathQueue} class walks a document directory on a background thread and
+ * hands every regular file to the consumers through a bounded queue as soon as it is found.
+
+ * Key Features:
+ * - Memory use is bounded by the queue capacity, regardless of the number of files in the directory
+ * - Processing starts with the first discovered file instead of after the whole tree has been listed
+ * - The producer blocks while the queue is full, so a slow consumer throttles the traversal
+ * - An excluded subtree (the "invalid" folder) is skipped, so files moved there during
+ *   the run are never visited twice
+
+ * Usage:
+ * - Call {@link #start()}, then let one or more consumers call {@link #take()} until it returns {@code null}
+ * - Call {@link #rethrowFailure()} after consumption to surface a traversal error
+ * - Closing the queue stops the producer if the consumers finished early
+
+ * Thread Safety:
+ * - {@link #take()} may be called concurrently by any number of consumers
+ */
+public class DocumentPathQueue implements AutoCloseable {
+
+    private static final Path END_OF_TRAVERSAL = Path.of("");
+
+    private final Path rootDirectory;
+    private final Path excludedDirectory;
+    private final BlockingQueue<Path> queue;
+    private final ILogger logger;
+    private final Thread producer;
+
+    private volatile IOException traversalFailure;
+
+    public DocumentPathQueue(Path rootDirectory, Path excludedDirectory, int capacity, ILogger logger) {
+        this.rootDirectory = rootDirectory;
+        this.excludedDirectory = excludedDirectory;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.logger = logger;
+        this.producer = new Thread(this::walkDirectory, "document-path-producer");
+        this.producer.setDaemon(true);
+    }
+
+    public void start() {
+        producer.start();
+    }
+
+    public Path take() {
+        try {
+            Path path = queue.take();
+            if (path == END_OF_TRAVERSAL) {
+                queue.put(END_OF_TRAVERSAL);
+                return null;
+            }
+            return path;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    public void rethrowFailure() throws IOException {
+        if (traversalFailure != null) {
+            throw traversalFailure;
+        }
+    }
+
+    private void walkDirectory() {
+        try {
+            Files.walkFileTree(rootDirectory, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) {
+                    return directory.equals(excludedDirectory) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                    if (attributes.isRegularFile()) {
+                        publish(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    logger.logWarning("The path could not be visited: " + file + " - " + e.getMessage());
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            traversalFailure = e;
+        } finally {
+            finish();
+        }
+    }
+
+    private void publish(Path file) throws IOException {
+        try {
+            queue.put(file);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("The directory traversal was interrupted", e);
+        }
+    }
+
+    private void finish() {
+        try {
+            queue.put(END_OF_TRAVERSAL);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        producer.interrupt();
+    }
+}
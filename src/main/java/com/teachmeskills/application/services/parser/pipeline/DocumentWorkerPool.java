@@ -0,0 +1,81 @@
+package com.teachmeskills.application.services.parser.pipeline;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+/**
+ * The {@code DocumentWorkerPool} class runs document processing tasks on a fixed number
+ * of worker threads, either platform threads or virtual threads.
+
+ * Key Features:
+ * - Configurable number of workers, which also bounds the number of files open at once
+ * - Optional virtual threads for I/O-bound workloads (for example, network shares)
+ * - Remembers the first failure of any task and rethrows it once all tasks have finished,
+ *   so a failing file aborts the run the same way it does in sequential mode
+
+ * Usage:
+ * - Submit one task per file with {@link #submit(Runnable)}
+ * - Call {@link #awaitCompletion()} to wait until every submitted task has finished
+
+ * Thread Safety:
+ * - {@link #submit(Runnable)} may be called from any thread until {@link #awaitCompletion()} is invoked
+ */
+public class DocumentWorkerPool implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final AtomicReference<RuntimeException> firstFailure = new AtomicReference<>();
+
+    public DocumentWorkerPool(int workerThreads, boolean useVirtualThreads) {
+        if (workerThreads < 1) {
+            throw new IllegalArgumentException("The number of worker threads must be positive: " + workerThreads);
+        }
+        this.executor = Executors.newFixedThreadPool(workerThreads, createThreadFactory(useVirtualThreads));
+    }
+
+    private ThreadFactory createThreadFactory(boolean useVirtualThreads) {
+        if (useVirtualThreads) {
+            return Thread.ofVirtual().name("parser-worker-", 1).factory();
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        return runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            thread.setName("parser-worker-" + threadNumber.getAndIncrement());
+            return thread;
+        };
+    }
+
+    public void submit(Runnable task) {
+        executor.execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                firstFailure.compareAndSet(null, e);
+            }
+        });
+    }
+
+    public void awaitCompletion() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        RuntimeException failure = firstFailure.get();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,26 @@
+package com.teachmeskills.application.services.parser.quarantine;
+
+import java.util.Locale;
+/**
+ * Enumerates the ways {@link QuarantineService} handles rejected files.
+
+ * Modes:
+ * - {@code MOVE}: Rejected files are moved into the "invalid" folder and recorded in the quarantine manifest.
+ * - {@code VIRTUAL}: Rejected files stay where they are; they are only recorded in the quarantine manifest.
+ */
+public enum QuarantineMode {
+
+    MOVE,
+    VIRTUAL;
+
+    public static QuarantineMode fromName(String name, QuarantineMode defaultMode) {
+        if (name == null || name.isBlank()) {
+            return defaultMode;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return defaultMode;
+        }
+    }
+}
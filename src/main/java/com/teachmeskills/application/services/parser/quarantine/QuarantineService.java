@@ -0,0 +1,236 @@
+package com.teachmeskills.application.services.parser.quarantine;
+
+import com.teachmeskills.application.services.logger.ILogger;
+import com.teachmeskills.application.services.parser.stats.InvalidFileStats;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+/**
+ * The {@code QuarantineService} class takes rejected files off the analysis threads and
+ * quarantines them on a single background thread.
+
+ * Key Features:
+ * - Workers only enqueue a request, so slow metadata operations (for example, moves on a
+ *   network share) no longer hold up the analysis of the next file
+ * - Requests are drained in batches; the quarantine manifest is flushed once per batch
+ * - Every rejected file is recorded in the quarantine manifest together with its reason
+ *   and the outcome of the move
+ * - In {@link QuarantineMode#VIRTUAL} mode nothing is moved; the manifest serves as an index
+ *   of rejected files that stay in place
+
+ * Manifest Format:
+ * - A plain text file with a header line followed by one tab-separated line per rejected file:
+ *   {@code source path, destination path ("-" when not moved), reason, status}
+ * - The status is one of {@code MOVED}, {@code RECORDED} (virtual mode) or {@code FAILED}
+ * - The manifest is rewritten on every run, unless the service is opened in append mode
+ *   (used by the watch mode, which keeps adding to the manifest of the initial run)
+
+ * Usage:
+ * - Call {@link #start()}, then {@link #submit(File, InvalidFileStats.InvalidReason)} from any thread
+ * - {@link #close()} waits until every submitted file has been quarantined
+
+ * Thread Safety:
+ * - {@link #submit(File, InvalidFileStats.InvalidReason)} may be called concurrently by any number of workers
+ * - Moves are performed by a single thread, so they never race each other in the "invalid" folder
+ */
+public class QuarantineService implements AutoCloseable {
+
+    private static final String HEADER = "# financial-analyzer quarantine manifest v1";
+    private static final String FIELD_SEPARATOR = "\t";
+    private static final String NOT_MOVED = "-";
+    private static final int QUEUE_CAPACITY = 4096;
+    private static final QuarantineRequest END_OF_REQUESTS = new QuarantineRequest(null, null);
+
+    private record QuarantineRequest(File file, InvalidFileStats.InvalidReason reason) {
+    }
+
+    private final Path invalidDirectory;
+    private final Path manifestPath;
+    private final QuarantineMode mode;
+    private final int batchSize;
+    private final boolean appendToManifest;
+    private final ILogger logger;
+    private final BlockingQueue<QuarantineRequest> queue = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread worker;
+
+    private final AtomicInteger quarantinedFiles = new AtomicInteger();
+    private final AtomicInteger failedFiles = new AtomicInteger();
+
+    private BufferedWriter manifestWriter;
+    private volatile boolean closed;
+
+    public QuarantineService(Path invalidDirectory, Path manifestPath, QuarantineMode mode, int batchSize, ILogger logger) {
+        this(invalidDirectory, manifestPath, mode, batchSize, false, logger);
+    }
+
+    public QuarantineService(Path invalidDirectory, Path manifestPath, QuarantineMode mode, int batchSize,
+                             boolean appendToManifest, ILogger logger) {
+        this.invalidDirectory = invalidDirectory;
+        this.manifestPath = manifestPath;
+        this.mode = mode;
+        this.batchSize = Math.max(1, batchSize);
+        this.appendToManifest = appendToManifest;
+        this.logger = logger;
+        this.worker = new Thread(this::processRequests, "quarantine-worker");
+        this.worker.setDaemon(true);
+    }
+
+    public void start() {
+        openManifest();
+        worker.start();
+    }
+
+    public void submit(File file, InvalidFileStats.InvalidReason reason) {
+        if (closed) {
+            throw new IllegalStateException("The quarantine service has already been closed");
+        }
+        try {
+            queue.put(new QuarantineRequest(file, reason));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.logError("The file could not be queued for quarantine: " + file.getName());
+            failedFiles.incrementAndGet();
+        }
+    }
+
+    public QuarantineMode getMode() {
+        return mode;
+    }
+
+    public int getQuarantinedFiles() {
+        return quarantinedFiles.get();
+    }
+
+    public int getFailedFiles() {
+        return failedFiles.get();
+    }
+
+    private void processRequests() {
+        List<QuarantineRequest> batch = new ArrayList<>(batchSize);
+        boolean finished = false;
+        try {
+            while (!finished) {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+
+                for (QuarantineRequest request : batch) {
+                    if (request == END_OF_REQUESTS) {
+                        finished = true;
+                    } else {
+                        quarantine(request);
+                    }
+                }
+                batch.clear();
+                flushManifest();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.logError("The quarantine worker was interrupted, " + queue.size() + " files were not quarantined");
+        }
+    }
+
+    private void quarantine(QuarantineRequest request) {
+        File file = request.file();
+        if (mode == QuarantineMode.VIRTUAL) {
+            quarantinedFiles.incrementAndGet();
+            writeManifestLine(file.getPath(), NOT_MOVED, request.reason(), "RECORDED");
+            return;
+        }
+
+        Path destination = invalidDirectory.resolve(file.getName());
+        try {
+            Files.move(file.toPath(), destination, StandardCopyOption.REPLACE_EXISTING);
+            quarantinedFiles.incrementAndGet();
+            writeManifestLine(file.getPath(), destination.toString(), request.reason(), "MOVED");
+            logger.logInfo("The file has been moved to the invalid folder: " + file.getName());
+        } catch (IOException e) {
+            failedFiles.incrementAndGet();
+            writeManifestLine(file.getPath(), NOT_MOVED, request.reason(), "FAILED");
+            logger.logError("The file could not be moved " + file.getName() + ": " + e.getMessage());
+        }
+    }
+
+    private void openManifest() {
+        try {
+            Path parent = manifestPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            if (appendToManifest && Files.exists(manifestPath) && Files.size(manifestPath) > 0) {
+                manifestWriter = Files.newBufferedWriter(manifestPath, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+                return;
+            }
+            manifestWriter = Files.newBufferedWriter(manifestPath, StandardCharsets.UTF_8);
+            manifestWriter.write(HEADER);
+            manifestWriter.newLine();
+        } catch (IOException e) {
+            manifestWriter = null;
+            logger.logError("The quarantine manifest could not be opened: " + manifestPath + " - " + e.getMessage());
+        }
+    }
+
+    private void writeManifestLine(String source, String destination, InvalidFileStats.InvalidReason reason, String status) {
+        if (manifestWriter == null) {
+            return;
+        }
+        try {
+            manifestWriter.write(String.join(FIELD_SEPARATOR, source, destination, reason.name(), status));
+            manifestWriter.newLine();
+        } catch (IOException e) {
+            logger.logError("The quarantine manifest could not be written: " + e.getMessage());
+        }
+    }
+
+    private void flushManifest() {
+        if (manifestWriter == null) {
+            return;
+        }
+        try {
+            manifestWriter.flush();
+        } catch (IOException e) {
+            logger.logError("The quarantine manifest could not be flushed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try {
+            if (worker.isAlive()) {
+                queue.put(END_OF_REQUESTS);
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            worker.interrupt();
+        } finally {
+            closeManifest();
+        }
+    }
+
+    private void closeManifest() {
+        if (manifestWriter == null) {
+            return;
+        }
+        try {
+            manifestWriter.close();
+        } catch (IOException e) {
+            logger.logError("The quarantine manifest could not be closed: " + e.getMessage());
+        }
+    }
+}
@@ -18,6 +18,11 @@ import java.util.Map;
  * - Provides detailed reporting of invalid file statistics, including file details
  *   and percentage breakdown by reason.
  * - Supports exporting the invalid file report to an external file.
+ * - {@link #getInvalidFiles()} and {@link #merge(Map)} copy the recorded files out of and into the
+ *   statistics, so the invalid files of several runs can be combined into one report.
+ * - Files are recorded by their path within the document directory, so files of the same name in
+ *   different subfolders are told apart; {@link #removeInvalidFile(String)} drops a file again when
+ *   it changes or disappears, for example in watch mode.
 
  * Thread Safety:
  * - All methods that modify or access shared state are synchronized to ensure
@@ -46,14 +51,39 @@ public class InvalidFileStats {
     private final Map<InvalidReason, List<String>> invalidFileStats = new EnumMap<>(InvalidReason.class);
     private int totalInvalidFiles = 0;
 
-    public synchronized void recordInvalidFile(InvalidReason reason, String fileName) {
-        if (reason == null || fileName == null || fileName.isEmpty()) {
-            throw new IllegalArgumentException("Invalid reason or file name provided");
+    public synchronized void recordInvalidFile(InvalidReason reason, String filePath) {
+        if (reason == null || filePath == null || filePath.isEmpty()) {
+            throw new IllegalArgumentException("Invalid reason or file path provided");
         }
-        invalidFileStats.computeIfAbsent(reason, k -> new ArrayList<>()).add(fileName);
+        invalidFileStats.computeIfAbsent(reason, k -> new ArrayList<>()).add(filePath);
         totalInvalidFiles++;
     }
 
+    public synchronized boolean removeInvalidFile(String filePath) {
+        for (List<String> files : invalidFileStats.values()) {
+            if (files.remove(filePath)) {
+                totalInvalidFiles--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized Map<InvalidReason, List<String>> getInvalidFiles() {
+        Map<InvalidReason, List<String>> copy = new EnumMap<>(InvalidReason.class);
+        invalidFileStats.forEach((reason, files) -> copy.put(reason, List.copyOf(files)));
+        return copy;
+    }
+
+    public synchronized void merge(Map<InvalidReason, List<String>> invalidFiles) {
+        invalidFiles.forEach((reason, files) -> {
+            if (!files.isEmpty()) {
+                invalidFileStats.computeIfAbsent(reason, k -> new ArrayList<>()).addAll(files);
+                totalInvalidFiles += files.size();
+            }
+        });
+    }
+
     public synchronized void generateDetailedReport() {
         System.out.println("\n==== DETAILED REPORT ON INVALID FILES ====");
         System.out.println("The total number of invalid files: " + totalInvalidFiles);
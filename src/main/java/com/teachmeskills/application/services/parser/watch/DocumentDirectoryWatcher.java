@@ -0,0 +1,211 @@
+package com.teachmeskills.application.services.parser.watch;
+
+import com.teachmeskills.application.services.logger.ILogger;
+import com.teachmeskills.application.services.parser.impl.ParserService;
+import com.teachmeskills.application.services.parser.quarantine.QuarantineService;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+/**
+ * The {@code DocumentDirectoryWatcher} class keeps a document directory under observation
+ * after the initial run and ingests files as they arrive, using {@link WatchService}.
+
+ * Key Features:
+ * - Watches the document directory and each of its subdirectories ({@code list_documents/*});
+ *   subdirectories created later are registered as they appear
+ * - New and modified files are handed to {@link ParserService#ingestChangedFile(File, QuarantineService)},
+ *   which retracts the previous results of a modified file before the new ones are recorded
+ * - Deleted files have their previous results retracted from the statistics
+ * - Events are coalesced: a file is processed once it has been quiet for a short settle period,
+ *   so a file that is still being copied is not analyzed several times
+ * - Statistics exports are refreshed on a debounce, once no change has been seen for the
+ *   configured period, instead of after every single file
+ * - The "invalid" folder is never watched, so quarantined files are not picked up again
+
+ * Usage:
+ * - Call {@link #start()} after the initial run; the watcher runs on its own daemon thread
+ * - {@link #close()} stops watching, processes pending changes and refreshes the exports one last time
+
+ * Thread Safety:
+ * - All changes are processed one after another on the watcher thread
+ */
+public class DocumentDirectoryWatcher implements AutoCloseable {
+
+    private static final long SETTLE_MILLIS = 250;
+
+    private final ParserService parserService;
+    private final Path rootDirectory;
+    private final Path invalidDirectory;
+    private final long debounceMillis;
+    private final ILogger logger;
+    private final WatchService watchService;
+    private final QuarantineService quarantine;
+    private final Thread worker;
+    private final Set<Path> pendingFiles = new LinkedHashSet<>();
+
+    private long lastChangeMillis;
+    private boolean exportPending;
+
+    public DocumentDirectoryWatcher(ParserService parserService, String directoryPath, long debounceMillis, ILogger logger) throws IOException {
+        this.parserService = parserService;
+        this.rootDirectory = Path.of(directoryPath).toAbsolutePath().normalize();
+        this.invalidDirectory = rootDirectory.resolve(ParserService.INVALID_DIRECTORY_NAME);
+        this.debounceMillis = debounceMillis;
+        this.logger = logger;
+        this.watchService = rootDirectory.getFileSystem().newWatchService();
+        this.quarantine = parserService.openQuarantine(invalidDirectory.toFile(), true);
+        this.worker = new Thread(this::watch, "document-directory-watcher");
+        this.worker.setDaemon(true);
+    }
+
+    public void start() throws IOException {
+        register(rootDirectory);
+        try (DirectoryStream<Path> subdirectories = Files.newDirectoryStream(rootDirectory, Files::isDirectory)) {
+            for (Path subdirectory : subdirectories) {
+                registerIfWatched(subdirectory);
+            }
+        }
+        worker.start();
+        logger.logInfo("Watching the document directory: " + rootDirectory);
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.poll(nextTimeoutMillis(), TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    collectEvents(key);
+                }
+                processSettledFiles(false);
+                exportIfDue(false);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            processSettledFiles(true);
+            exportIfDue(true);
+        }
+    }
+
+    private long nextTimeoutMillis() {
+        if (!pendingFiles.isEmpty()) {
+            return SETTLE_MILLIS;
+        }
+        if (exportPending) {
+            return Math.max(1, lastChangeMillis + debounceMillis - System.currentTimeMillis());
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private void collectEvents(WatchKey key) {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                logger.logWarning("Watch events were lost for " + directory + ", rescanning the directory");
+                rescan(directory);
+                continue;
+            }
+
+            Path path = directory.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                if (directory.equals(rootDirectory)) {
+                    registerIfWatched(path);
+                    rescan(path);
+                }
+                continue;
+            }
+            pendingFiles.add(path);
+        }
+        lastChangeMillis = System.currentTimeMillis();
+        key.reset();
+    }
+
+    private void processSettledFiles(boolean force) {
+        if (pendingFiles.isEmpty()) {
+            return;
+        }
+        if (!force && System.currentTimeMillis() - lastChangeMillis < SETTLE_MILLIS) {
+            return;
+        }
+
+        for (Path path : pendingFiles) {
+            if (path.startsWith(invalidDirectory) || Files.isDirectory(path)) {
+                continue;
+            }
+            try {
+                parserService.ingestChangedFile(path.toFile(), quarantine);
+            } catch (RuntimeException e) {
+                logger.logError("The changed file could not be processed: " + path + " - " + e.getMessage());
+            }
+        }
+        pendingFiles.clear();
+        lastChangeMillis = System.currentTimeMillis();
+        exportPending = true;
+    }
+
+    private void exportIfDue(boolean force) {
+        if (!exportPending) {
+            return;
+        }
+        if (!force && System.currentTimeMillis() - lastChangeMillis < debounceMillis) {
+            return;
+        }
+        parserService.exportStatistics();
+        exportPending = false;
+        logger.logInfo("The statistics exports have been refreshed after changes in " + rootDirectory);
+    }
+
+    private void rescan(Path directory) {
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path entry : entries) {
+                if (Files.isRegularFile(entry)) {
+                    pendingFiles.add(entry);
+                }
+            }
+        } catch (IOException e) {
+            logger.logWarning("The directory could not be rescanned: " + directory + " - " + e.getMessage());
+        }
+    }
+
+    private void registerIfWatched(Path directory) {
+        if (directory.equals(invalidDirectory)) {
+            return;
+        }
+        try {
+            register(directory);
+        } catch (IOException e) {
+            logger.logWarning("The directory could not be watched: " + directory + " - " + e.getMessage());
+        }
+    }
+
+    private void register(Path directory) throws IOException {
+        directory.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+            worker.join();
+        } catch (IOException e) {
+            logger.logWarning("The watch service could not be closed: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            quarantine.close();
+        }
+        logger.logInfo("Stopped watching the document directory: " + rootDirectory);
+    }
+}
@@ -0,0 +1,133 @@
+package com.teachmeskills.application.services.statistic;
+
+import java.util.Arrays;
+/**
+ * The distribution of the amounts of one document type, kept as a log-linear histogram.
+
+ * Bucket Layout:
+ * - Amounts (in minor units) below {@code 2^SUB_BUCKET_BITS} have a bucket of their own
+ * - Above that, every power-of-two range {@code [2^e, 2^(e+1))} is split into {@code 2^SUB_BUCKET_BITS}
+ *   equal buckets, so the width of a bucket is at most 1/64 of the amounts in it
+ * - Amounts from {@code 2^MAX_EXPONENT} minor units up share the last bucket; amounts below zero share the first
+ * - {@link #BUCKETS} counters per type are enough for any archive size; no individual amount is stored
+
+ * Key Features:
+ * - {@link #getPercentileInMinorUnits(double)} returns the middle of the bucket holding the requested rank,
+ *   which is within 1/128 of the true value for amounts of the regular range
+ * - The exact minimum and maximum are tracked next to the buckets; once documents have been retracted, they
+ *   are narrowed to the lowest and highest non-empty buckets
+ * - The mean is exact, as it is computed from the exact total and count of the type
+ * - Histograms of different runs are merged by adding their bucket counts (see {@link StatisticsSnapshot#merge})
+
+ * Usage Notes:
+ * - Obtained through {@link StatisticsSnapshot#getHistogram(com.teachmeskills.application.model.DocumentType)}
+ * - Percentiles, minimum, maximum and mean are {@code 0} for an empty histogram
+
+ * Thread Safety:
+ * - Immutable
+ */
+public final class AmountHistogram {
+
+    public static final int SUB_BUCKET_BITS = 6;
+    public static final int MAX_EXPONENT = 40;
+    public static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final long MAX_TRACKED = (1L << MAX_EXPONENT) - 1;
+
+    private final long[] bucketCounts;
+    private final long count;
+    private final long minInMinorUnits;
+    private final long maxInMinorUnits;
+    private final long totalInMinorUnits;
+
+    AmountHistogram(long[] bucketCounts, long minInMinorUnits, long maxInMinorUnits, long totalInMinorUnits) {
+        this.bucketCounts = bucketCounts;
+        this.count = Arrays.stream(bucketCounts).sum();
+
+        int lowest = -1;
+        int highest = -1;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            if (bucketCounts[i] > 0) {
+                lowest = lowest < 0 ? i : lowest;
+                highest = i;
+            }
+        }
+        if (lowest < 0) {
+            this.minInMinorUnits = 0;
+            this.maxInMinorUnits = 0;
+        } else {
+            this.minInMinorUnits = clamp(minInMinorUnits, lowerBound(lowest, minInMinorUnits), upperBound(lowest, maxInMinorUnits));
+            this.maxInMinorUnits = clamp(maxInMinorUnits, lowerBound(highest, minInMinorUnits), upperBound(highest));
+        }
+        this.totalInMinorUnits = totalInMinorUnits;
+    }
+
+    public static int bucketOf(long amountInMinorUnits) {
+        if (amountInMinorUnits < SUB_BUCKETS) {
+            return (int) Math.max(0, amountInMinorUnits);
+        }
+        long amount = Math.min(amountInMinorUnits, MAX_TRACKED);
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(amount);
+        int subBucket = (int) (amount >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKETS;
+        return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + subBucket;
+    }
+
+    public static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+        long subBucket = (bucket & (SUB_BUCKETS - 1)) + SUB_BUCKETS;
+        return subBucket << (exponent - SUB_BUCKET_BITS);
+    }
+
+    public static long upperBound(int bucket) {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : lowerBound(bucket + 1) - 1;
+    }
+
+    private static long lowerBound(int bucket, long exactMin) {
+        return bucket == 0 ? Math.min(0, exactMin) : lowerBound(bucket);
+    }
+
+    private static long upperBound(int bucket, long exactMax) {
+        return bucket == BUCKETS - 1 ? Math.max(MAX_TRACKED, exactMax) : upperBound(bucket);
+    }
+
+    private static long clamp(long value, long low, long high) {
+        return Math.max(low, Math.min(high, value));
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMinInMinorUnits() {
+        return minInMinorUnits;
+    }
+
+    public long getMaxInMinorUnits() {
+        return maxInMinorUnits;
+    }
+
+    public long getMeanInMinorUnits() {
+        return count == 0 ? 0 : Math.round((double) totalInMinorUnits / count);
+    }
+
+    public long getPercentileInMinorUnits(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                long low = lowerBound(i);
+                long high = i == BUCKETS - 1 ? maxInMinorUnits : upperBound(i);
+                return clamp(low + (high - low) / 2, minInMinorUnits, maxInMinorUnits);
+            }
+        }
+        return maxInMinorUnits;
+    }
+}
@@ -1,6 +1,9 @@
 package com.teachmeskills.application.services.statistic;
 
 import com.teachmeskills.application.exception.StatisticsExportException;
+import com.teachmeskills.application.model.DocumentPeriod;
+import com.teachmeskills.application.model.DocumentType;
+import com.teachmeskills.application.model.IDocument;
 import com.teachmeskills.application.model.impl.Check;
 import com.teachmeskills.application.model.impl.Invoice;
 import com.teachmeskills.application.model.impl.Order;
@@ -13,9 +16,21 @@ import com.teachmeskills.application.model.impl.Order;
  * - recordCheck(Check check): Records statistical data associated with a check object.
  * - recordInvoice(Invoice invoice): Records statistical data associated with an invoice object.
  * - recordOrder(Order order): Records statistical data associated with an order object.
+ * - record(IDocument document): Records a document of any type, dispatching on its DocumentType.
+ * - retract(IDocument document): Removes a previously recorded document, for example when its file changes.
+ * - record(IDocument document, DocumentPeriod period) / retract(IDocument document, DocumentPeriod period):
+ *   The same, additionally updating the year and month rollup of the document's period.
+ * - merge(StatisticsSnapshot snapshot): Adds the statistics of a snapshot, for example one saved by another run.
+ * - record(IDocument document, DocumentPeriod period, String filePath, int lineNumber): The same, additionally
+ *   offering the document, with the file and line it was read from, to the largest documents of its type.
+ * - retractLargestDocuments(String filePath): Removes the documents of a changed or deleted file from the largest documents.
  * - displayStatistics(): Displays collected statistics on the console or relevant output medium.
  * - exportStatisticsToFile(String filePath): Exports the collected statistics to a file,
  *   throwing a StatisticsExportException in case of failure.
+ * - exportPeriodStatisticsToFile(String filePath): Exports the totals per type, year and month to a file.
+ * - getTotalAmountInMinorUnits(DocumentType type): Returns the exact total amount of a document type in minor units.
+ * - getDocumentCount(DocumentType type): Returns the number of recorded documents of a document type.
+ * - snapshot(): Returns a consistent, immutable copy of all collected statistics.
  */
 public interface IStatsService {
 
@@ -25,7 +40,29 @@ public interface IStatsService {
 
     void recordOrder(Order order);
 
+    void record(IDocument document);
+
+    void retract(IDocument document);
+
+    void record(IDocument document, DocumentPeriod period);
+
+    void retract(IDocument document, DocumentPeriod period);
+
+    void record(IDocument document, DocumentPeriod period, String filePath, int lineNumber);
+
+    void retractLargestDocuments(String filePath);
+
+    void merge(StatisticsSnapshot snapshot);
+
     void displayStatistics();
 
     void exportStatisticsToFile(String filePath) throws StatisticsExportException;
+
+    void exportPeriodStatisticsToFile(String filePath) throws StatisticsExportException;
+
+    long getTotalAmountInMinorUnits(DocumentType type);
+
+    long getDocumentCount(DocumentType type);
+
+    StatisticsSnapshot snapshot();
 }
\ No newline at end of file
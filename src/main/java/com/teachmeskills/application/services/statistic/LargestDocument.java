@@ -0,0 +1,24 @@
+package com.teachmeskills.application.services.statistic;
+
+import com.teachmeskills.application.model.DocumentType;
+
+import java.util.Comparator;
+/**
+ * One of the largest documents of a type, together with the place it was read from.
+
+ * Usage Notes:
+ * - {@code filePath} is the path of the file relative to the document directory, with {@code /} as separator,
+ *   so files of the same name in different subfolders are told apart; files outside the directory keep their
+ *   absolute path
+ * - {@code lineNumber} starts at {@code 1}; {@code 0} means that the line is unknown
+ *   (for example, for documents cached by a file manifest written before line numbers were recorded)
+ * - {@link #LARGEST_FIRST} orders by descending amount, then by file path and line number, so reports
+ *   built from the same documents are always listed in the same order
+ */
+public record LargestDocument(DocumentType type, long amountInMinorUnits, String filePath, int lineNumber) {
+
+    public static final Comparator<LargestDocument> LARGEST_FIRST =
+            Comparator.comparingLong(LargestDocument::amountInMinorUnits).reversed()
+                    .thenComparing(LargestDocument::filePath)
+                    .thenComparingInt(LargestDocument::lineNumber);
+}
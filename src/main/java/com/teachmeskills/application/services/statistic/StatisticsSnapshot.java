@@ -0,0 +1,251 @@
+package com.teachmeskills.application.services.statistic;
+
+import com.teachmeskills.application.model.DocumentPeriod;
+import com.teachmeskills.application.model.DocumentType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.LongBinaryOperator;
+/**
+ * An immutable point-in-time copy of the collected statistics.
+
+ * For every {@link DocumentType} the snapshot holds the exact total amount in minor units
+ * and the number of recorded documents. Both values of a type always describe the same
+ * set of recorded documents, so reports built from one snapshot are internally consistent.
+
+ * Period Rollups:
+ * - The totals are also broken down by the year and month of the documents ({@link DocumentPeriod})
+ * - Rollups cover the years {@link #FIRST_YEAR} to {@link #LAST_YEAR}; month {@code 0} holds the documents
+ *   of a year whose month is unknown
+ * - Documents of every other year share one overflow rollup, addressed by the year {@link #OTHER_YEARS};
+ *   {@link #yearOf(int)} lists the years of all rollups, the overflow last
+ * - Documents without a year are part of the totals but of no rollup
+
+ * Amount Distribution:
+ * - For every type the snapshot also holds a log-linear histogram of the document amounts and their exact
+ *   minimum and maximum, from which {@link #getHistogram(DocumentType)} derives percentiles ({@link AmountHistogram})
+ * - Bucket counts are stored in one array indexed by {@link #histogramIndex(DocumentType, int)}
+
+ * Largest Documents:
+ * - For every type the snapshot holds up to {@link #getLargestDocumentsLimit()} of the largest documents,
+ *   with the file and line they were read from ({@link #getLargestDocuments(DocumentType)}, largest first)
+
+ * Merging:
+ * - {@link #merge(StatisticsSnapshot)} adds two snapshots value by value, so merging the snapshots of
+ *   several runs over disjoint sets of files gives the snapshot of a single run over all of them
+ * - Histogram buckets are added as well, and the minimum and maximum are the smaller and larger of both
+ * - The largest documents of both are combined and cut to the larger of both limits
+ * - The merge is associative and commutative; {@link #empty()} is its identity
+
+ * Usage Notes:
+ * - Obtained through {@link IStatsService#snapshot()}.
+ * - Values are stored in arrays indexed by {@link DocumentType#ordinal()}; rollups in arrays indexed
+ *   by {@link #periodIndex(DocumentType, int, int)}.
+ */
+public final class StatisticsSnapshot {
+
+    public static final int FIRST_YEAR = 2000;
+    public static final int LAST_YEAR = 2063;
+    public static final int OTHER_YEARS = 0;
+    public static final int YEARS = LAST_YEAR - FIRST_YEAR + 2;
+    public static final int MONTH_SLOTS = 13;
+    public static final int PERIOD_SLOTS = DocumentType.count() * YEARS * MONTH_SLOTS;
+    public static final int HISTOGRAM_SLOTS = DocumentType.count() * AmountHistogram.BUCKETS;
+
+    private final long[] totalsInMinorUnits;
+    private final long[] documentCounts;
+    private final long[] periodTotalsInMinorUnits;
+    private final long[] periodDocumentCounts;
+    private final long[] histogramCounts;
+    private final long[] minimaInMinorUnits;
+    private final long[] maximaInMinorUnits;
+    private final int largestDocumentsLimit;
+    private final List<List<LargestDocument>> largestDocuments;
+
+    public StatisticsSnapshot(long[] totalsInMinorUnits, long[] documentCounts) {
+        this(totalsInMinorUnits, documentCounts, new long[PERIOD_SLOTS], new long[PERIOD_SLOTS]);
+    }
+
+    public StatisticsSnapshot(long[] totalsInMinorUnits, long[] documentCounts,
+                              long[] periodTotalsInMinorUnits, long[] periodDocumentCounts) {
+        this(totalsInMinorUnits, documentCounts, periodTotalsInMinorUnits, periodDocumentCounts,
+                new long[HISTOGRAM_SLOTS], emptyMinima(), emptyMaxima());
+    }
+
+    public StatisticsSnapshot(long[] totalsInMinorUnits, long[] documentCounts,
+                              long[] periodTotalsInMinorUnits, long[] periodDocumentCounts,
+                              long[] histogramCounts, long[] minimaInMinorUnits, long[] maximaInMinorUnits) {
+        this(totalsInMinorUnits, documentCounts, periodTotalsInMinorUnits, periodDocumentCounts,
+                histogramCounts, minimaInMinorUnits, maximaInMinorUnits, 0, List.of());
+    }
+
+    public StatisticsSnapshot(long[] totalsInMinorUnits, long[] documentCounts,
+                              long[] periodTotalsInMinorUnits, long[] periodDocumentCounts,
+                              long[] histogramCounts, long[] minimaInMinorUnits, long[] maximaInMinorUnits,
+                              int largestDocumentsLimit, Collection<LargestDocument> largestDocuments) {
+        if (totalsInMinorUnits.length != DocumentType.count() || documentCounts.length != DocumentType.count()) {
+            throw new IllegalArgumentException("Snapshot arrays must have one entry per document type");
+        }
+        if (periodTotalsInMinorUnits.length != PERIOD_SLOTS || periodDocumentCounts.length != PERIOD_SLOTS) {
+            throw new IllegalArgumentException("Period arrays must have one entry per document type, year and month");
+        }
+        if (histogramCounts.length != HISTOGRAM_SLOTS
+                || minimaInMinorUnits.length != DocumentType.count() || maximaInMinorUnits.length != DocumentType.count()) {
+            throw new IllegalArgumentException("Histogram arrays must have one entry per document type and bucket");
+        }
+        this.totalsInMinorUnits = totalsInMinorUnits.clone();
+        this.documentCounts = documentCounts.clone();
+        this.periodTotalsInMinorUnits = periodTotalsInMinorUnits.clone();
+        this.periodDocumentCounts = periodDocumentCounts.clone();
+        this.histogramCounts = histogramCounts.clone();
+        this.minimaInMinorUnits = minimaInMinorUnits.clone();
+        this.maximaInMinorUnits = maximaInMinorUnits.clone();
+        this.largestDocumentsLimit = Math.max(0, largestDocumentsLimit);
+        this.largestDocuments = new ArrayList<>(DocumentType.count());
+        for (DocumentType type : DocumentType.values()) {
+            this.largestDocuments.add(largestDocuments.stream()
+                    .filter(document -> document.type() == type)
+                    .sorted(LargestDocument.LARGEST_FIRST)
+                    .limit(this.largestDocumentsLimit)
+                    .toList());
+        }
+    }
+
+    public static long[] emptyMinima() {
+        long[] minima = new long[DocumentType.count()];
+        Arrays.fill(minima, Long.MAX_VALUE);
+        return minima;
+    }
+
+    public static long[] emptyMaxima() {
+        long[] maxima = new long[DocumentType.count()];
+        Arrays.fill(maxima, Long.MIN_VALUE);
+        return maxima;
+    }
+
+    public static StatisticsSnapshot empty() {
+        return new StatisticsSnapshot(new long[DocumentType.count()], new long[DocumentType.count()]);
+    }
+
+    public StatisticsSnapshot merge(StatisticsSnapshot other) {
+        return new StatisticsSnapshot(add(totalsInMinorUnits, other.totalsInMinorUnits),
+                add(documentCounts, other.documentCounts),
+                add(periodTotalsInMinorUnits, other.periodTotalsInMinorUnits),
+                add(periodDocumentCounts, other.periodDocumentCounts),
+                add(histogramCounts, other.histogramCounts),
+                combine(minimaInMinorUnits, other.minimaInMinorUnits, Math::min),
+                combine(maximaInMinorUnits, other.maximaInMinorUnits, Math::max),
+                Math.max(largestDocumentsLimit, other.largestDocumentsLimit),
+                concat(largestDocuments, other.largestDocuments));
+    }
+
+    private static List<LargestDocument> concat(List<List<LargestDocument>> left, List<List<LargestDocument>> right) {
+        List<LargestDocument> documents = new ArrayList<>();
+        left.forEach(documents::addAll);
+        right.forEach(documents::addAll);
+        return documents;
+    }
+
+    private static long[] combine(long[] left, long[] right, LongBinaryOperator operator) {
+        long[] result = new long[left.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = operator.applyAsLong(left[i], right[i]);
+        }
+        return result;
+    }
+
+    private static long[] add(long[] left, long[] right) {
+        long[] sum = left.clone();
+        for (int i = 0; i < sum.length; i++) {
+            sum[i] += right[i];
+        }
+        return sum;
+    }
+
+    public static int periodIndex(DocumentType type, int year, int month) {
+        int yearSlot = year >= FIRST_YEAR && year <= LAST_YEAR ? year - FIRST_YEAR : YEARS - 1;
+        return (type.ordinal() * YEARS + yearSlot) * MONTH_SLOTS + month;
+    }
+
+    public static int yearOf(int yearSlot) {
+        return yearSlot == YEARS - 1 ? OTHER_YEARS : FIRST_YEAR + yearSlot;
+    }
+
+    public static int histogramIndex(DocumentType type, int bucket) {
+        return type.ordinal() * AmountHistogram.BUCKETS + bucket;
+    }
+
+    public long getHistogramCount(DocumentType type, int bucket) {
+        return histogramCounts[histogramIndex(type, bucket)];
+    }
+
+    public long getMinInMinorUnits(DocumentType type) {
+        return minimaInMinorUnits[type.ordinal()];
+    }
+
+    public long getMaxInMinorUnits(DocumentType type) {
+        return maximaInMinorUnits[type.ordinal()];
+    }
+
+    public int getLargestDocumentsLimit() {
+        return largestDocumentsLimit;
+    }
+
+    public List<LargestDocument> getLargestDocuments(DocumentType type) {
+        return largestDocuments.get(type.ordinal());
+    }
+
+    public AmountHistogram getHistogram(DocumentType type) {
+        int start = histogramIndex(type, 0);
+        return new AmountHistogram(Arrays.copyOfRange(histogramCounts, start, start + AmountHistogram.BUCKETS),
+                getMinInMinorUnits(type), getMaxInMinorUnits(type), getTotalInMinorUnits(type));
+    }
+
+    public long getTotalInMinorUnits(DocumentType type) {
+        return totalsInMinorUnits[type.ordinal()];
+    }
+
+    public long getDocumentCount(DocumentType type) {
+        return documentCounts[type.ordinal()];
+    }
+
+    public long getTotalInMinorUnits(DocumentType type, int year, int month) {
+        return periodTotalsInMinorUnits[periodIndex(type, year, month)];
+    }
+
+    public long getDocumentCount(DocumentType type, int year, int month) {
+        return periodDocumentCounts[periodIndex(type, year, month)];
+    }
+
+    public long getYearTotalInMinorUnits(DocumentType type, int year) {
+        long total = 0;
+        int start = periodIndex(type, year, 0);
+        for (int month = 0; month < MONTH_SLOTS; month++) {
+            total += periodTotalsInMinorUnits[start + month];
+        }
+        return total;
+    }
+
+    public long getYearDocumentCount(DocumentType type, int year) {
+        long count = 0;
+        int start = periodIndex(type, year, 0);
+        for (int month = 0; month < MONTH_SLOTS; month++) {
+            count += periodDocumentCounts[start + month];
+        }
+        return count;
+    }
+
+    public boolean hasYear(DocumentType type, int year) {
+        return getYearDocumentCount(type, year) != 0;
+    }
+
+    public long getMaxTotalInMinorUnits() {
+        long max = 0;
+        for (long total : totalsInMinorUnits) {
+            max = Math.max(max, total);
+        }
+        return max;
+    }
+}
@@ -1,21 +1,27 @@
 package com.teachmeskills.application.services.statistic.impl;
 
 import com.teachmeskills.application.exception.StatisticsExportException;
+import com.teachmeskills.application.model.DocumentPeriod;
+import com.teachmeskills.application.model.DocumentType;
+import com.teachmeskills.application.model.IDocument;
 import com.teachmeskills.application.model.impl.Check;
 import com.teachmeskills.application.model.impl.Invoice;
 import com.teachmeskills.application.model.impl.Order;
 import com.teachmeskills.application.services.logger.ILogger;
+import com.teachmeskills.application.services.statistic.AmountHistogram;
 import com.teachmeskills.application.services.statistic.IStatsService;
+import com.teachmeskills.application.services.statistic.LargestDocument;
+import com.teachmeskills.application.services.statistic.StatisticsSnapshot;
+import com.teachmeskills.application.utils.config.ConfigurationLoader;
+import com.teachmeskills.application.utils.money.MinorUnits;
 
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.text.DecimalFormat;
-import java.util.Map;
+import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
 /**
  * A service class that implements the IStatsService interface to manage, track, and log statistics
  * for various business entities such as checks, invoices, and orders.
@@ -26,7 +32,18 @@ import java.util.concurrent.atomic.AtomicReference;
  * - Export statistics to a file in a readable format with error handling.
 
  * Key Features:
- * - Thread-safe management of statistics using `ConcurrentHashMap` and atomic primitives.
+ * - Thread-safe statistics store indexed by `DocumentType`, striped across threads (`StripedStatistics`).
+ * - Exact totals: amounts are accumulated as fixed-point minor units (cents) instead of `double`.
+ * - Cheap consistent snapshots (`StatisticsSnapshot`) used by the display and the export.
+ * - Rollups per type, year and month (`DocumentPeriod`), kept in primitive arrays next to the totals and
+ *   filled by the same record call; one pass over an archive of several years answers every period question.
+ *   Years outside the rollup window of `StatisticsSnapshot` are reported together as "other years".
+ * - Amount distribution per type (`AmountHistogram`): a fixed-size log-linear histogram filled by the same
+ *   record call, reported as min/max/mean/p50/p90/p99 without keeping any individual amount.
+ * - Largest documents per type (`LargestDocument`) with the file and line they came from, kept in a small
+ *   bounded heap per type and stripe and merged when a snapshot is taken; the number kept is configurable.
+ * - Snapshots of other runs (for example, shards of an archive processed by other JVMs) can be merged
+ *   into the service (`merge`), after which the display and the exports cover all of them.
  * - Customizable logging mechanism through an `ILogger` implementation.
  * - Graphical and tabular display of data for better insight.
 
@@ -41,12 +58,14 @@ import java.util.concurrent.atomic.AtomicReference;
  * - Provides detailed feedback (logging warnings, errors) for unsupported or failed operations.
 
  * Thread Safety:
- * - Uses `ConcurrentHashMap` and atomic classes (`AtomicReference` and `AtomicInteger`) to ensure
- *   thread-safety when updating statistics across multiple threads.
+ * - Every recording thread updates its own stripe of primitive sums and counts, so parallel
+ *   ingestion neither allocates nor contends on shared counters.
+ * - Reports read a single snapshot instead of live values, so the sum and the count of a type
+ *   always describe the same set of documents.
 
  * Logging:
  * - Utilizes the `ILogger` interface to log information, warnings, and errors.
- * - Logs when unsupported types are accessed or if file export operations fail.
+ * - Logs if file export operations fail.
 
  * Bar Chart Visualization:
  * - Displays a normalized bar graph in console format to visually represent the relative values
@@ -54,11 +73,14 @@ import java.util.concurrent.atomic.AtomicReference;
 
  * File Export:
  * - Writes formatted statistics data to an external file.
+ * - Writes the amount distribution and the largest documents of every type below its total and count.
+ * - Writes the period rollups to a separate file (`exportPeriodStatisticsToFile`).
  * - Handles I/O errors gracefully by logging the exception and wrapping it in a custom exception.
 
  * Constructor:
- * - `StatsService(ILogger logger)`: Initializes the service with a logger and pre-defines types
- *   ("Check", "Invoice", "Order") for tracking.
+ * - `StatsService(ILogger logger)`: Initializes the service with a logger and an empty store
+ *   for every `DocumentType`, keeping `TOP_DOCUMENTS_LIMIT` largest documents per type.
+ * - `StatsService(ILogger logger, int largestDocumentsLimit)`: The same with an explicit number of largest documents.
 
  * Dependencies:
  * - `IStatsService`: The service interface that this class implements.
@@ -68,74 +90,185 @@ public class StatsService implements IStatsService {
     private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat("#.00");
     private static final int MAX_BAR_LENGTH = 50;
 
-    private final Map<String, AtomicReference<Double>> statistics;
-    private final Map<String, AtomicInteger> fileCounters;
+    private final StripedStatistics statistics;
     private final ILogger logger;
 
     public StatsService(ILogger logger) {
-        this.logger = Objects.requireNonNull(logger, "Logger cannot be null");
-        this.statistics = new ConcurrentHashMap<>();
-        this.fileCounters = new ConcurrentHashMap<>();
-        initializeStatistics();
+        this(logger, ConfigurationLoader.TOP_DOCUMENTS_LIMIT);
     }
 
-    private void initializeStatistics() {
-        for (String type : new String[]{"Check", "Invoice", "Order"}) {
-            statistics.put(type, new AtomicReference<>(0.0));
-            fileCounters.put(type, new AtomicInteger(0));
-        }
+    public StatsService(ILogger logger, int largestDocumentsLimit) {
+        this.logger = Objects.requireNonNull(logger, "Logger cannot be null");
+        this.statistics = new StripedStatistics(largestDocumentsLimit);
     }
 
     @Override
     public void recordCheck(Check check) {
-        record("Check", check.getTotalAmount());
+        record(check);
     }
 
     @Override
     public void recordInvoice(Invoice invoice) {
-        record("Invoice", invoice.getTotalAmount());
+        record(invoice);
     }
 
     @Override
     public void recordOrder(Order order) {
-        record("Order", order.getTotalAmount());
+        record(order);
     }
 
-    private void record(String type, double amount) {
-        if (!statistics.containsKey(type)) {
-            logger.logWarning("Unsupported type: " + type);
-            return;
-        }
-        statistics.get(type).updateAndGet(current -> current + amount);
-        fileCounters.get(type).incrementAndGet();
+    @Override
+    public void record(IDocument document) {
+        record(document, DocumentPeriod.UNKNOWN);
+    }
+
+    @Override
+    public void retract(IDocument document) {
+        retract(document, DocumentPeriod.UNKNOWN);
+    }
+
+    @Override
+    public void record(IDocument document, DocumentPeriod period) {
+        statistics.record(document.getType(), period, document.getTotalAmountInMinorUnits());
+    }
+
+    @Override
+    public void retract(IDocument document, DocumentPeriod period) {
+        statistics.retract(document.getType(), period, document.getTotalAmountInMinorUnits());
+    }
+
+    @Override
+    public void record(IDocument document, DocumentPeriod period, String filePath, int lineNumber) {
+        statistics.record(document.getType(), period, document.getTotalAmountInMinorUnits(), filePath, lineNumber);
+    }
+
+    @Override
+    public void retractLargestDocuments(String filePath) {
+        statistics.retractLargestDocuments(filePath);
+    }
+
+    @Override
+    public void merge(StatisticsSnapshot snapshot) {
+        statistics.merge(Objects.requireNonNull(snapshot, "Snapshot cannot be null"));
+    }
+
+    @Override
+    public long getTotalAmountInMinorUnits(DocumentType type) {
+        return snapshot().getTotalInMinorUnits(type);
+    }
+
+    @Override
+    public long getDocumentCount(DocumentType type) {
+        return snapshot().getDocumentCount(type);
+    }
+
+    @Override
+    public StatisticsSnapshot snapshot() {
+        return statistics.snapshot();
     }
 
     @Override
     public void displayStatistics() {
+        StatisticsSnapshot snapshot = snapshot();
+
         StringBuilder report = new StringBuilder();
         report.append("==================== FINANCIAL STATISTICS ====================\n");
         report.append(String.format("%-15s | %-15s | %-20s%n", "Type", "Total Amount", "Number of Files"));
         report.append("---------------------------------------------------------------\n");
 
-        statistics.forEach((key, value) -> {
-            String formattedValue = DECIMAL_FORMAT.format(value.get());
-            int fileCount = fileCounters.get(key).get();
-            report.append(String.format("%-15s | %-15s | %-20d%n", key, formattedValue, fileCount));
-        });
+        for (DocumentType type : DocumentType.values()) {
+            String formattedValue = formatAmount(snapshot.getTotalInMinorUnits(type));
+            long fileCount = snapshot.getDocumentCount(type);
+            report.append(String.format("%-15s | %-15s | %-20d%n", type.getDisplayName(), formattedValue, fileCount));
+        }
 
         report.append("================================================================\n");
         System.out.println(report);
 
-        drawConsoleBarChart();
+        drawConsoleBarChart(snapshot);
+        displayAmountDistribution(snapshot);
+        displayLargestDocuments(snapshot);
+        displayPeriodStatistics(snapshot);
+    }
+
+    private void displayLargestDocuments(StatisticsSnapshot snapshot) {
+        if (snapshot.getLargestDocumentsLimit() == 0) {
+            return;
+        }
+        System.out.println("\n===== Largest Documents =====");
+        for (DocumentType type : DocumentType.values()) {
+            List<LargestDocument> documents = snapshot.getLargestDocuments(type);
+            for (int i = 0; i < documents.size(); i++) {
+                System.out.printf("%-10s #%-3d %12s %s  %s%n", type.getDisplayName(), i + 1,
+                        formatAmount(documents.get(i).amountInMinorUnits()), type.getCurrencySymbol(),
+                        formatLocation(documents.get(i)));
+            }
+        }
+        System.out.println("----------------------------------------------------------------");
+    }
+
+    private void displayAmountDistribution(StatisticsSnapshot snapshot) {
+        System.out.println("\n===== Amount Distribution =====");
+        System.out.printf("%-10s | %10s | %10s | %10s | %10s | %10s | %10s%n", "Type", "Min", "P50", "P90", "P99", "Max", "Mean");
+        System.out.println("-------------------------------------------------------------------------------------");
+        for (DocumentType type : DocumentType.values()) {
+            AmountHistogram histogram = snapshot.getHistogram(type);
+            System.out.printf("%-10s | %10s | %10s | %10s | %10s | %10s | %10s%n", type.getDisplayName(),
+                    formatAmount(histogram.getMinInMinorUnits()),
+                    formatAmount(histogram.getPercentileInMinorUnits(50)),
+                    formatAmount(histogram.getPercentileInMinorUnits(90)),
+                    formatAmount(histogram.getPercentileInMinorUnits(99)),
+                    formatAmount(histogram.getMaxInMinorUnits()),
+                    formatAmount(histogram.getMeanInMinorUnits()));
+        }
+        System.out.println("-------------------------------------------------------------------------------------");
+    }
+
+    private void displayPeriodStatistics(StatisticsSnapshot snapshot) {
+        StringBuilder report = new StringBuilder();
+        for (DocumentType type : DocumentType.values()) {
+            for (int yearSlot = 0; yearSlot < StatisticsSnapshot.YEARS; yearSlot++) {
+                int year = StatisticsSnapshot.yearOf(yearSlot);
+                if (!snapshot.hasYear(type, year)) {
+                    continue;
+                }
+                report.append(String.format("%-8s %s: %10s %s [%d files]", type.getDisplayName(), yearLabel(year),
+                        formatAmount(snapshot.getYearTotalInMinorUnits(type, year)), type.getCurrencySymbol(),
+                        snapshot.getYearDocumentCount(type, year)));
+                if (year == StatisticsSnapshot.OTHER_YEARS) {
+                    report.append(System.lineSeparator());
+                    continue;
+                }
+                report.append(" |");
+                for (int month = 1; month < StatisticsSnapshot.MONTH_SLOTS; month++) {
+                    if (snapshot.getDocumentCount(type, year, month) != 0) {
+                        report.append(String.format(" %02d: %s", month, formatAmount(snapshot.getTotalInMinorUnits(type, year, month))));
+                    }
+                }
+                if (snapshot.getDocumentCount(type, year, 0) != 0) {
+                    report.append(" ??: ").append(formatAmount(snapshot.getTotalInMinorUnits(type, year, 0)));
+                }
+                report.append(System.lineSeparator());
+            }
+        }
+
+        if (!report.isEmpty()) {
+            System.out.println("\n===== Statistics by Period =====");
+            System.out.print(report);
+            System.out.println("----------------------------------------------------------------");
+        }
     }
 
     @Override
     public void exportStatisticsToFile(String filePath) throws StatisticsExportException {
         logger.logInfo("Exporting statistics to file: " + filePath);
+        StatisticsSnapshot snapshot = snapshot();
 
         try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            for (Map.Entry<String, AtomicReference<Double>> entry : statistics.entrySet()) {
-                writeStatistic(writer, entry.getKey(), entry.getValue().get(), fileCounters.get(entry.getKey()).get());
+            for (DocumentType type : DocumentType.values()) {
+                writeStatistic(writer, type, snapshot.getTotalInMinorUnits(type), snapshot.getDocumentCount(type));
+                writeDistribution(writer, type, snapshot.getHistogram(type));
+                writeLargestDocuments(writer, type, snapshot.getLargestDocuments(type));
             }
             logger.logInfo("Statistics exported successfully to " + filePath);
         } catch (IOException e) {
@@ -145,50 +278,115 @@ public class StatsService implements IStatsService {
         }
     }
 
-    private void writeStatistic(BufferedWriter writer, String key, double value, int fileCount) throws IOException {
-        String formattedValue = DECIMAL_FORMAT.format(value);
-        writer.write(String.format("The total amount for %s: %s%n", key, formattedValue));
-        writer.write(String.format("Number of files for %s: %d%n", key, fileCount));
+    @Override
+    public void exportPeriodStatisticsToFile(String filePath) throws StatisticsExportException {
+        logger.logInfo("Exporting period statistics to file: " + filePath);
+        StatisticsSnapshot snapshot = snapshot();
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
+            for (DocumentType type : DocumentType.values()) {
+                for (int yearSlot = 0; yearSlot < StatisticsSnapshot.YEARS; yearSlot++) {
+                    int year = StatisticsSnapshot.yearOf(yearSlot);
+                    if (!snapshot.hasYear(type, year)) {
+                        continue;
+                    }
+                    writePeriodStatistic(writer, type, yearLabel(year),
+                            snapshot.getYearTotalInMinorUnits(type, year), snapshot.getYearDocumentCount(type, year));
+                    if (year == StatisticsSnapshot.OTHER_YEARS) {
+                        continue;
+                    }
+                    for (int month = 0; month < StatisticsSnapshot.MONTH_SLOTS; month++) {
+                        long fileCount = snapshot.getDocumentCount(type, year, month);
+                        if (fileCount != 0) {
+                            writePeriodStatistic(writer, type, month == 0 ? year + " (month unknown)" : String.format("%d-%02d", year, month),
+                                    snapshot.getTotalInMinorUnits(type, year, month), fileCount);
+                        }
+                    }
+                }
+            }
+            logger.logInfo("Period statistics exported successfully to " + filePath);
+        } catch (IOException e) {
+            String errorMessage = "Failed to export period statistics to file: " + filePath + ". Error: " + e.getMessage();
+            logger.logError(errorMessage);
+            throw new StatisticsExportException(StatisticsExportException.Type.IO_ERROR, e);
+        }
+    }
+
+    private static String yearLabel(int year) {
+        return year == StatisticsSnapshot.OTHER_YEARS ? "other years" : Integer.toString(year);
+    }
+
+    private void writePeriodStatistic(BufferedWriter writer, DocumentType type, String period, long value, long fileCount)
+            throws IOException {
+        writer.write(String.format("The total amount for %s in %s: %s (%d files)%n",
+                type.getDisplayName(), period, formatAmount(value), fileCount));
+    }
+
+    private void writeStatistic(BufferedWriter writer, DocumentType type, long value, long fileCount) throws IOException {
+        String formattedValue = formatAmount(value);
+        writer.write(String.format("The total amount for %s: %s%n", type.getDisplayName(), formattedValue));
+        writer.write(String.format("Number of files for %s: %d%n", type.getDisplayName(), fileCount));
+    }
+
+    private void writeDistribution(BufferedWriter writer, DocumentType type, AmountHistogram histogram) throws IOException {
+        writer.write(String.format("Amount distribution for %s: min %s, p50 %s, p90 %s, p99 %s, max %s, mean %s%n",
+                type.getDisplayName(),
+                formatAmount(histogram.getMinInMinorUnits()),
+                formatAmount(histogram.getPercentileInMinorUnits(50)),
+                formatAmount(histogram.getPercentileInMinorUnits(90)),
+                formatAmount(histogram.getPercentileInMinorUnits(99)),
+                formatAmount(histogram.getMaxInMinorUnits()),
+                formatAmount(histogram.getMeanInMinorUnits())));
+    }
+
+    private void writeLargestDocuments(BufferedWriter writer, DocumentType type, List<LargestDocument> documents)
+            throws IOException {
+        if (documents.isEmpty()) {
+            return;
+        }
+        writer.write(String.format("Largest documents for %s:%n", type.getDisplayName()));
+        for (int i = 0; i < documents.size(); i++) {
+            writer.write(String.format("  %d. %s - %s%n", i + 1,
+                    formatAmount(documents.get(i).amountInMinorUnits()), formatLocation(documents.get(i))));
+        }
+    }
+
+    private String formatLocation(LargestDocument document) {
+        return document.lineNumber() > 0 ? document.filePath() + ":" + document.lineNumber() : document.filePath();
     }
 
     public void drawConsoleBarChart() {
+        drawConsoleBarChart(snapshot());
+    }
+
+    private void drawConsoleBarChart(StatisticsSnapshot snapshot) {
         System.out.println("\n===== Graphical Representation =====");
 
-        double maxValue = statistics.values().stream()
-                .mapToDouble(AtomicReference::get)
-                .max()
-                .orElse(0);
+        long maxValue = snapshot.getMaxTotalInMinorUnits();
 
         if (maxValue == 0) {
             System.out.println("No data to display a bar chart.");
             return;
         }
 
-        for (Map.Entry<String, AtomicReference<Double>> entry : statistics.entrySet()) {
-            String key = entry.getKey();
-            double value = entry.getValue().get();
-            int barLength = (int) ((value / maxValue) * MAX_BAR_LENGTH);
+        for (DocumentType type : DocumentType.values()) {
+            long value = snapshot.getTotalInMinorUnits(type);
+            int barLength = (int) (((double) value / maxValue) * MAX_BAR_LENGTH);
             String bar = "█".repeat(barLength);
-            String currencySymbol = getCurrencySymbol(key);
-            String formattedValue = DECIMAL_FORMAT.format(value);
-            int fileCount = fileCounters.get(key).get();
+            String formattedValue = formatAmount(value);
+            long fileCount = snapshot.getDocumentCount(type);
 
             System.out.printf("%-10s: %s (%8s %s) [%d files]%n",
-                    key, bar, formattedValue, currencySymbol, fileCount);
+                    type.getDisplayName(), bar, formattedValue, type.getCurrencySymbol(), fileCount);
         }
 
         System.out.println("----------------------------------------------------------------");
     }
 
-    private String getCurrencySymbol(String type) {
-        if (type == null) {
-            return "€";
-        }
-        switch (type) {
-            case "Invoice":
-                return "$";
-            default:
-                return "€";
+    private String formatAmount(long amountInMinorUnits) {
+        BigDecimal amount = MinorUnits.toBigDecimal(amountInMinorUnits);
+        synchronized (DECIMAL_FORMAT) {
+            return DECIMAL_FORMAT.format(amount);
         }
     }
-}
\ No newline at end of file
+}
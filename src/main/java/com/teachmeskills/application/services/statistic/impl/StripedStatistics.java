@@ -0,0 +1,219 @@
+package com.teachmeskills.application.services.statistic.impl;
+
+import com.teachmeskills.application.model.DocumentPeriod;
+import com.teachmeskills.application.model.DocumentType;
+import com.teachmeskills.application.services.statistic.AmountHistogram;
+import com.teachmeskills.application.services.statistic.LargestDocument;
+import com.teachmeskills.application.services.statistic.StatisticsSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+/**
+ * A statistics store indexed by {@link DocumentType} and striped across threads.
+
+ * Design:
+ * - The store holds a power-of-two number of stripes (about two per available core)
+ * - A recording thread picks its stripe from its thread id, so parallel workers update
+ *   different stripes and do not contend with each other
+ * - Each stripe keeps the sum and the count of every document type in plain {@code long}
+ *   arrays indexed by the type ordinal; the arrays are padded to keep stripes on separate cache lines
+ * - Sum and count are updated together under the stripe monitor, which is uncontended in the
+ *   common case and therefore cheap
+ * - A retraction is recorded as a negative amount and count, so the totals stay exact whichever
+ *   stripe the original record went to
+ * - Next to the totals, each stripe keeps the sums and counts per type, year and month in two flat
+ *   {@code long} arrays (see {@link StatisticsSnapshot#periodIndex(DocumentType, int, int)}); a record
+ *   updates the total and its period slot in the same step, so one pass over the documents fills both
+ * - Each stripe also keeps a log-linear histogram of the amounts per type ({@link AmountHistogram}) and
+ *   the smallest and largest amount recorded; a retraction decrements the bucket of its amount
+ * - {@link #merge(StatisticsSnapshot)} adds a snapshot (for example, one loaded from another run)
+ *   to the stripe of the calling thread
+
+ * Largest Documents:
+ * - Each stripe keeps the largest documents of every type seen by its threads in a min-heap bounded to
+ *   the configured limit; a document is only allocated and offered when it beats the smallest one kept
+ *   (or the heap is not full yet), so the common case is a single comparison
+ * - Documents are ranked by {@link LargestDocument#LARGEST_FIRST}, so equal amounts are kept in the same
+ *   order whatever thread or run recorded them
+ * - The heaps of all stripes are merged into the top documents of the snapshot
+ * - A document retraction does not touch the heaps; {@link #retractLargestDocuments(String)} removes the
+ *   documents of a changed or deleted file instead, after which fewer documents than the limit may be kept
+ *   until the next full run
+
+ * Snapshots:
+ * - {@link #snapshot()} visits every stripe once and copies its values under the same monitor,
+ *   so the sum and the count of a type in the snapshot always cover exactly the same records
+ */
+class StripedStatistics {
+
+    private static final int MAX_STRIPES = 64;
+    private static final int PADDING = 8;
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final int largestDocumentsLimit;
+
+    private static final class Stripe {
+        private final long[] sums = new long[DocumentType.count() + 2 * PADDING];
+        private final long[] counts = new long[DocumentType.count() + 2 * PADDING];
+        private final long[] periodSums = new long[StatisticsSnapshot.PERIOD_SLOTS];
+        private final long[] periodCounts = new long[StatisticsSnapshot.PERIOD_SLOTS];
+        private final long[] histogramCounts = new long[StatisticsSnapshot.HISTOGRAM_SLOTS];
+        private final long[] minima = StatisticsSnapshot.emptyMinima();
+        private final long[] maxima = StatisticsSnapshot.emptyMaxima();
+        private final List<PriorityQueue<LargestDocument>> largest = new ArrayList<>(DocumentType.count());
+
+        private Stripe() {
+            for (int i = 0; i < DocumentType.count(); i++) {
+                largest.add(new PriorityQueue<>(LargestDocument.LARGEST_FIRST.reversed()));
+            }
+        }
+    }
+
+    StripedStatistics(int largestDocumentsLimit) {
+        this.largestDocumentsLimit = Math.max(0, largestDocumentsLimit);
+        int stripeCount = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+        stripeCount = Math.min(MAX_STRIPES, stripeCount);
+
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    void record(DocumentType type, DocumentPeriod period, long amountInMinorUnits) {
+        add(type, period, amountInMinorUnits, 1);
+    }
+
+    void record(DocumentType type, DocumentPeriod period, long amountInMinorUnits, String filePath, int lineNumber) {
+        Stripe stripe = currentStripe();
+        synchronized (stripe) {
+            add(stripe, type, period, amountInMinorUnits, 1);
+            if (largestDocumentsLimit == 0) {
+                return;
+            }
+            PriorityQueue<LargestDocument> heap = stripe.largest.get(type.ordinal());
+            if (heap.size() < largestDocumentsLimit || precedes(amountInMinorUnits, filePath, lineNumber, heap.peek())) {
+                offer(heap, new LargestDocument(type, amountInMinorUnits, filePath, lineNumber));
+            }
+        }
+    }
+
+    void retract(DocumentType type, DocumentPeriod period, long amountInMinorUnits) {
+        add(type, period, amountInMinorUnits, -1);
+    }
+
+    void retractLargestDocuments(String filePath) {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.largest.forEach(heap -> heap.removeIf(document -> document.filePath().equals(filePath)));
+            }
+        }
+    }
+
+    private static boolean precedes(long amountInMinorUnits, String filePath, int lineNumber, LargestDocument smallest) {
+        if (amountInMinorUnits != smallest.amountInMinorUnits()) {
+            return amountInMinorUnits > smallest.amountInMinorUnits();
+        }
+        int byFilePath = filePath.compareTo(smallest.filePath());
+        return byFilePath != 0 ? byFilePath < 0 : lineNumber < smallest.lineNumber();
+    }
+
+    private void offer(PriorityQueue<LargestDocument> heap, LargestDocument document) {
+        heap.offer(document);
+        if (heap.size() > largestDocumentsLimit) {
+            heap.poll();
+        }
+    }
+
+    private void add(DocumentType type, DocumentPeriod period, long amountInMinorUnits, long count) {
+        add(currentStripe(), type, period, amountInMinorUnits, count);
+    }
+
+    private void add(Stripe stripe, DocumentType type, DocumentPeriod period, long amountInMinorUnits, long count) {
+        int index = PADDING + type.ordinal();
+        int periodIndex = period.hasYear() ? StatisticsSnapshot.periodIndex(type, period.year(), period.month()) : -1;
+        int histogramIndex = StatisticsSnapshot.histogramIndex(type, AmountHistogram.bucketOf(amountInMinorUnits));
+        long signedAmount = count * amountInMinorUnits;
+        synchronized (stripe) {
+            stripe.sums[index] += signedAmount;
+            stripe.counts[index] += count;
+            if (periodIndex >= 0) {
+                stripe.periodSums[periodIndex] += signedAmount;
+                stripe.periodCounts[periodIndex] += count;
+            }
+            stripe.histogramCounts[histogramIndex] += count;
+            if (count > 0) {
+                stripe.minima[type.ordinal()] = Math.min(stripe.minima[type.ordinal()], amountInMinorUnits);
+                stripe.maxima[type.ordinal()] = Math.max(stripe.maxima[type.ordinal()], amountInMinorUnits);
+            }
+        }
+    }
+
+    void merge(StatisticsSnapshot snapshot) {
+        Stripe stripe = currentStripe();
+        synchronized (stripe) {
+            for (DocumentType type : DocumentType.values()) {
+                stripe.sums[PADDING + type.ordinal()] += snapshot.getTotalInMinorUnits(type);
+                stripe.counts[PADDING + type.ordinal()] += snapshot.getDocumentCount(type);
+                for (int yearSlot = 0; yearSlot < StatisticsSnapshot.YEARS; yearSlot++) {
+                    int year = StatisticsSnapshot.yearOf(yearSlot);
+                    for (int month = 0; month < StatisticsSnapshot.MONTH_SLOTS; month++) {
+                        int periodIndex = StatisticsSnapshot.periodIndex(type, year, month);
+                        stripe.periodSums[periodIndex] += snapshot.getTotalInMinorUnits(type, year, month);
+                        stripe.periodCounts[periodIndex] += snapshot.getDocumentCount(type, year, month);
+                    }
+                }
+                for (int bucket = 0; bucket < AmountHistogram.BUCKETS; bucket++) {
+                    stripe.histogramCounts[StatisticsSnapshot.histogramIndex(type, bucket)] += snapshot.getHistogramCount(type, bucket);
+                }
+                stripe.minima[type.ordinal()] = Math.min(stripe.minima[type.ordinal()], snapshot.getMinInMinorUnits(type));
+                stripe.maxima[type.ordinal()] = Math.max(stripe.maxima[type.ordinal()], snapshot.getMaxInMinorUnits(type));
+                if (largestDocumentsLimit > 0) {
+                    snapshot.getLargestDocuments(type).forEach(document -> offer(stripe.largest.get(type.ordinal()), document));
+                }
+            }
+        }
+    }
+
+    StatisticsSnapshot snapshot() {
+        long[] sums = new long[DocumentType.count()];
+        long[] counts = new long[DocumentType.count()];
+        long[] periodSums = new long[StatisticsSnapshot.PERIOD_SLOTS];
+        long[] periodCounts = new long[StatisticsSnapshot.PERIOD_SLOTS];
+        long[] histogramCounts = new long[StatisticsSnapshot.HISTOGRAM_SLOTS];
+        long[] minima = StatisticsSnapshot.emptyMinima();
+        long[] maxima = StatisticsSnapshot.emptyMaxima();
+        List<LargestDocument> largest = new ArrayList<>();
+
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (int i = 0; i < sums.length; i++) {
+                    sums[i] += stripe.sums[PADDING + i];
+                    counts[i] += stripe.counts[PADDING + i];
+                }
+                for (int i = 0; i < periodSums.length; i++) {
+                    periodSums[i] += stripe.periodSums[i];
+                    periodCounts[i] += stripe.periodCounts[i];
+                }
+                for (int i = 0; i < histogramCounts.length; i++) {
+                    histogramCounts[i] += stripe.histogramCounts[i];
+                }
+                for (int i = 0; i < minima.length; i++) {
+                    minima[i] = Math.min(minima[i], stripe.minima[i]);
+                    maxima[i] = Math.max(maxima[i], stripe.maxima[i]);
+                }
+                stripe.largest.forEach(largest::addAll);
+            }
+        }
+        return new StatisticsSnapshot(sums, counts, periodSums, periodCounts, histogramCounts, minima, maxima,
+                largestDocumentsLimit, largest);
+    }
+
+    private Stripe currentStripe() {
+        long threadId = Thread.currentThread().threadId();
+        return stripes[(int) (threadId ^ (threadId >>> 32)) & stripeMask];
+    }
+}
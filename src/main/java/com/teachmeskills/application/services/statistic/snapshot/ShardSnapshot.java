@@ -0,0 +1,87 @@
+package com.teachmeskills.application.services.statistic.snapshot;
+
+import com.teachmeskills.application.services.parser.stats.InvalidFileStats;
+import com.teachmeskills.application.services.parser.stats.InvalidFileStats.InvalidReason;
+import com.teachmeskills.application.services.statistic.IStatsService;
+import com.teachmeskills.application.services.statistic.StatisticsSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+/**
+ * The {@code ShardSnapshot} record holds the complete result of one run over a part (shard) of a document
+ * archive: the financial statistics of {@code StatsService} and the invalid files of {@code InvalidFileStats}.
+
+ * Key Features:
+ * - {@link #capture(String, IStatsService, InvalidFileStats)} takes a consistent copy of both at the end of a run
+ * - {@link #merge(ShardSnapshot)} combines two results; it is associative, so any number of shards may be
+ *   merged in any grouping, and {@link #empty()} is its identity
+ * - {@link #applyTo(IStatsService, InvalidFileStats)} feeds a (merged) result back into the services, whose
+ *   existing displays and exports then produce the reports of the whole archive
+ * - Saved and loaded by {@link ShardSnapshotCodec}
+
+ * Usage Notes:
+ * - {@code shards} counts the runs a snapshot covers; {@code createdMillis} is the time of the latest of them
+ * - {@code shardIds} are the sorted ids of those runs; a rerun of a shard keeps its id, so
+ *   {@link #sharedShardIds(ShardSnapshot)} tells whether two snapshots would count the same shard twice
+ * - Snapshots saved before shard ids were recorded have no ids
+ * - The invalid files keep their order: the files of this snapshot come before those of the merged one
+
+ * Thread Safety:
+ * - Immutable
+ */
+public record ShardSnapshot(int shards,
+                            long createdMillis,
+                            List<String> shardIds,
+                            StatisticsSnapshot statistics,
+                            Map<InvalidReason, List<String>> invalidFiles) {
+
+    public ShardSnapshot {
+        shardIds = List.copyOf(new TreeSet<>(shardIds));
+        Map<InvalidReason, List<String>> copy = new EnumMap<>(InvalidReason.class);
+        invalidFiles.forEach((reason, files) -> {
+            if (!files.isEmpty()) {
+                copy.put(reason, List.copyOf(files));
+            }
+        });
+        invalidFiles = Collections.unmodifiableMap(copy);
+    }
+
+    public static ShardSnapshot empty() {
+        return new ShardSnapshot(0, 0, List.of(), StatisticsSnapshot.empty(), Map.of());
+    }
+
+    public static ShardSnapshot capture(String shardId, IStatsService statistics, InvalidFileStats invalidFileStats) {
+        return new ShardSnapshot(1, System.currentTimeMillis(), List.of(shardId), statistics.snapshot(),
+                invalidFileStats.getInvalidFiles());
+    }
+
+    public ShardSnapshot merge(ShardSnapshot other) {
+        Map<InvalidReason, List<String>> merged = new EnumMap<>(InvalidReason.class);
+        for (InvalidReason reason : InvalidReason.values()) {
+            List<String> files = new ArrayList<>(invalidFiles.getOrDefault(reason, List.of()));
+            files.addAll(other.invalidFiles.getOrDefault(reason, List.of()));
+            merged.put(reason, files);
+        }
+        List<String> ids = new ArrayList<>(shardIds);
+        ids.addAll(other.shardIds);
+        return new ShardSnapshot(shards + other.shards, Math.max(createdMillis, other.createdMillis), ids,
+                statistics.merge(other.statistics), merged);
+    }
+
+    public List<String> sharedShardIds(ShardSnapshot other) {
+        return shardIds.stream().filter(other.shardIds::contains).toList();
+    }
+
+    public void applyTo(IStatsService statistics, InvalidFileStats invalidFileStats) {
+        statistics.merge(this.statistics);
+        invalidFileStats.merge(invalidFiles);
+    }
+
+    public int getInvalidFileCount() {
+        return invalidFiles.values().stream().mapToInt(List::size).sum();
+    }
+}
@@ -0,0 +1,339 @@
+package com.teachmeskills.application.services.statistic.snapshot;
+
+import com.teachmeskills.application.exception.StatisticsExportException;
+import com.teachmeskills.application.model.DocumentType;
+import com.teachmeskills.application.services.parser.stats.InvalidFileStats.InvalidReason;
+import com.teachmeskills.application.services.statistic.AmountHistogram;
+import com.teachmeskills.application.services.statistic.LargestDocument;
+import com.teachmeskills.application.services.statistic.StatisticsSnapshot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+/**
+ * The {@code ShardSnapshotCodec} class saves and loads {@link ShardSnapshot} instances in a compact,
+ * versioned binary format.
+
+ * Format (version 1, big-endian):
+ * - Header: magic {@code "TMSS"}, format version (short), number of shards (int), creation time (long)
+ * - Shard ids: number of ids (int), then the ids (UTF)
+ * - Totals: number of document types (byte), then per type its name (UTF), total in minor units and count (longs)
+ * - Rollups: the number of non-empty slots (int), then per slot the type index (byte), year (short, {@code 0} for
+ *   the "other years" rollup), month (byte), total and count (longs)
+ * - Histograms: sub-bucket bits and maximum exponent of the bucket layout (bytes), then per type in the order
+ *   of the totals its minimum and maximum (longs), the number of non-empty buckets (int) and per bucket its
+ *   index (short) and count (long)
+ * - Largest documents: the limit per type (int), then per type in the order of the totals the number of
+ *   documents (int) and per document its amount (long), file path (UTF) and line number (int)
+ * - Invalid files: number of reasons (byte), then per reason its name (UTF), number of files (int) and the names (UTF)
+ * - Trailer: CRC-32 of all preceding bytes (long)
+
+ * Key Features:
+ * - Only non-empty rollup slots are written, so a snapshot of one year of documents takes a few kilobytes
+ * - Types and reasons are stored by name and rollups by year and month, so a reader does not depend on enum
+ *   ordinals or on the array layout of {@link StatisticsSnapshot}
+ * - {@link #save(ShardSnapshot, Path)} writes to a temporary file and moves it into place, so a process
+ *   merging a shared directory never sees a half-written snapshot
+ * - {@link #listSnapshots(Path)} returns the snapshot files ({@value #FILE_EXTENSION}) of a directory
+ * - {@link #fileName(String)} names the snapshot of a shard after its id only, so a rerun of the shard
+ *   overwrites its previous snapshot instead of adding a second one; there is no default id, as two processes
+ *   sharing one would overwrite each other's snapshot
+
+ * Error Handling:
+ * - I/O errors are reported as {@link StatisticsExportException} of type {@code IO_ERROR}
+ * - A wrong magic, another version, a truncated file, a checksum mismatch, a different histogram layout or
+ *   unknown types, reasons or years are reported as {@code UNSUPPORTED_FORMAT}
+
+ * Thread Safety:
+ * - Stateless; all methods may be called by any thread
+ */
+public final class ShardSnapshotCodec {
+
+    public static final String FILE_EXTENSION = ".stats";
+    private static final int MAGIC = 0x544D5353;
+    private static final short VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ShardSnapshotCodec() {
+    }
+
+    public static String fileName(String shardId) {
+        return "shard-" + shardId.replaceAll("[^A-Za-z0-9.-]", "_") + FILE_EXTENSION;
+    }
+
+    public static void save(ShardSnapshot snapshot, Path file) throws StatisticsExportException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(temporary), BUFFER_SIZE)) {
+                write(snapshot, output);
+            }
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temporary);
+            } catch (IOException ignored) {
+                // The original error is more useful to the caller
+            }
+            throw new StatisticsExportException(StatisticsExportException.Type.IO_ERROR, e);
+        }
+    }
+
+    public static ShardSnapshot load(Path file) throws StatisticsExportException {
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE)) {
+            return read(input);
+        } catch (EOFException e) {
+            throw unsupported("Truncated snapshot: " + file);
+        } catch (IOException e) {
+            throw new StatisticsExportException(StatisticsExportException.Type.IO_ERROR, e);
+        }
+    }
+
+    public static List<Path> listSnapshots(Path directory) throws StatisticsExportException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, "*" + FILE_EXTENSION)) {
+            for (Path entry : entries) {
+                if (Files.isRegularFile(entry)) {
+                    files.add(entry);
+                }
+            }
+        } catch (IOException e) {
+            throw new StatisticsExportException(StatisticsExportException.Type.IO_ERROR, e);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    public static void write(ShardSnapshot snapshot, OutputStream output) throws IOException {
+        CheckedOutputStream checked = new CheckedOutputStream(output, new CRC32());
+        DataOutputStream data = new DataOutputStream(checked);
+        StatisticsSnapshot statistics = snapshot.statistics();
+
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeInt(snapshot.shards());
+        data.writeLong(snapshot.createdMillis());
+        data.writeInt(snapshot.shardIds().size());
+        for (String shardId : snapshot.shardIds()) {
+            data.writeUTF(shardId);
+        }
+
+        data.writeByte(DocumentType.count());
+        for (DocumentType type : DocumentType.values()) {
+            data.writeUTF(type.name());
+            data.writeLong(statistics.getTotalInMinorUnits(type));
+            data.writeLong(statistics.getDocumentCount(type));
+        }
+
+        data.writeInt(countNonEmptySlots(statistics));
+        for (DocumentType type : DocumentType.values()) {
+            for (int yearSlot = 0; yearSlot < StatisticsSnapshot.YEARS; yearSlot++) {
+                int year = StatisticsSnapshot.yearOf(yearSlot);
+                for (int month = 0; month < StatisticsSnapshot.MONTH_SLOTS; month++) {
+                    long total = statistics.getTotalInMinorUnits(type, year, month);
+                    long count = statistics.getDocumentCount(type, year, month);
+                    if (total != 0 || count != 0) {
+                        data.writeByte(type.ordinal());
+                        data.writeShort(year);
+                        data.writeByte(month);
+                        data.writeLong(total);
+                        data.writeLong(count);
+                    }
+                }
+            }
+        }
+
+        data.writeByte(AmountHistogram.SUB_BUCKET_BITS);
+        data.writeByte(AmountHistogram.MAX_EXPONENT);
+        for (DocumentType type : DocumentType.values()) {
+            data.writeLong(statistics.getMinInMinorUnits(type));
+            data.writeLong(statistics.getMaxInMinorUnits(type));
+            int buckets = 0;
+            for (int bucket = 0; bucket < AmountHistogram.BUCKETS; bucket++) {
+                if (statistics.getHistogramCount(type, bucket) != 0) {
+                    buckets++;
+                }
+            }
+            data.writeInt(buckets);
+            for (int bucket = 0; bucket < AmountHistogram.BUCKETS; bucket++) {
+                long count = statistics.getHistogramCount(type, bucket);
+                if (count != 0) {
+                    data.writeShort(bucket);
+                    data.writeLong(count);
+                }
+            }
+        }
+
+        data.writeInt(statistics.getLargestDocumentsLimit());
+        for (DocumentType type : DocumentType.values()) {
+            List<LargestDocument> documents = statistics.getLargestDocuments(type);
+            data.writeInt(documents.size());
+            for (LargestDocument document : documents) {
+                data.writeLong(document.amountInMinorUnits());
+                data.writeUTF(document.filePath());
+                data.writeInt(document.lineNumber());
+            }
+        }
+
+        data.writeByte(snapshot.invalidFiles().size());
+        for (Map.Entry<InvalidReason, List<String>> entry : snapshot.invalidFiles().entrySet()) {
+            data.writeUTF(entry.getKey().name());
+            data.writeInt(entry.getValue().size());
+            for (String fileName : entry.getValue()) {
+                data.writeUTF(fileName);
+            }
+        }
+
+        data.flush();
+        data.writeLong(checked.getChecksum().getValue());
+        data.flush();
+    }
+
+    public static ShardSnapshot read(InputStream input) throws IOException, StatisticsExportException {
+        CheckedInputStream checked = new CheckedInputStream(input, new CRC32());
+        DataInputStream data = new DataInputStream(checked);
+
+        if (data.readInt() != MAGIC) {
+            throw unsupported("Not a statistics snapshot");
+        }
+        short version = data.readShort();
+        if (version != VERSION) {
+            throw unsupported("Unsupported snapshot version: " + version);
+        }
+        int shards = data.readInt();
+        long createdMillis = data.readLong();
+        List<String> shardIds = new ArrayList<>();
+        int idCount = data.readInt();
+        for (int i = 0; i < idCount; i++) {
+            shardIds.add(data.readUTF());
+        }
+
+        int typeCount = data.readUnsignedByte();
+        DocumentType[] types = new DocumentType[typeCount];
+        long[] totals = new long[DocumentType.count()];
+        long[] counts = new long[DocumentType.count()];
+        for (int i = 0; i < typeCount; i++) {
+            types[i] = valueOf(DocumentType.class, data.readUTF());
+            totals[types[i].ordinal()] += data.readLong();
+            counts[types[i].ordinal()] += data.readLong();
+        }
+
+        long[] periodTotals = new long[StatisticsSnapshot.PERIOD_SLOTS];
+        long[] periodCounts = new long[StatisticsSnapshot.PERIOD_SLOTS];
+        int slots = data.readInt();
+        for (int i = 0; i < slots; i++) {
+            int typeIndex = data.readUnsignedByte();
+            int year = data.readShort();
+            int month = data.readUnsignedByte();
+            if (typeIndex >= typeCount
+                    || year != StatisticsSnapshot.OTHER_YEARS && (year < StatisticsSnapshot.FIRST_YEAR || year > StatisticsSnapshot.LAST_YEAR)
+                    || month >= StatisticsSnapshot.MONTH_SLOTS) {
+                throw unsupported("Unsupported rollup slot: type " + typeIndex + ", year " + year + ", month " + month);
+            }
+            int index = StatisticsSnapshot.periodIndex(types[typeIndex], year, month);
+            periodTotals[index] += data.readLong();
+            periodCounts[index] += data.readLong();
+        }
+
+        long[] histogramCounts = new long[StatisticsSnapshot.HISTOGRAM_SLOTS];
+        long[] minima = StatisticsSnapshot.emptyMinima();
+        long[] maxima = StatisticsSnapshot.emptyMaxima();
+        int subBucketBits = data.readUnsignedByte();
+        int maxExponent = data.readUnsignedByte();
+        if (subBucketBits != AmountHistogram.SUB_BUCKET_BITS || maxExponent != AmountHistogram.MAX_EXPONENT) {
+            throw unsupported("Unsupported histogram layout: " + subBucketBits + "/" + maxExponent);
+        }
+        for (DocumentType type : types) {
+            minima[type.ordinal()] = Math.min(minima[type.ordinal()], data.readLong());
+            maxima[type.ordinal()] = Math.max(maxima[type.ordinal()], data.readLong());
+            int buckets = data.readInt();
+            for (int i = 0; i < buckets; i++) {
+                int bucket = data.readUnsignedShort();
+                if (bucket >= AmountHistogram.BUCKETS) {
+                    throw unsupported("Unsupported histogram bucket: " + bucket);
+                }
+                histogramCounts[StatisticsSnapshot.histogramIndex(type, bucket)] += data.readLong();
+            }
+        }
+
+        int largestDocumentsLimit = data.readInt();
+        List<LargestDocument> largestDocuments = new ArrayList<>();
+        for (DocumentType type : types) {
+            int documents = data.readInt();
+            for (int i = 0; i < documents; i++) {
+                largestDocuments.add(new LargestDocument(type, data.readLong(), data.readUTF(), data.readInt()));
+            }
+        }
+
+        Map<InvalidReason, List<String>> invalidFiles = new EnumMap<>(InvalidReason.class);
+        int reasonCount = data.readUnsignedByte();
+        for (int i = 0; i < reasonCount; i++) {
+            InvalidReason reason = valueOf(InvalidReason.class, data.readUTF());
+            int fileCount = data.readInt();
+            List<String> files = invalidFiles.computeIfAbsent(reason, k -> new ArrayList<>());
+            for (int j = 0; j < fileCount; j++) {
+                files.add(data.readUTF());
+            }
+        }
+
+        long expectedChecksum = checked.getChecksum().getValue();
+        if (data.readLong() != expectedChecksum) {
+            throw unsupported("Checksum mismatch");
+        }
+        return new ShardSnapshot(shards, createdMillis, shardIds,
+                new StatisticsSnapshot(totals, counts, periodTotals, periodCounts, histogramCounts, minima, maxima,
+                        largestDocumentsLimit, largestDocuments),
+                invalidFiles);
+    }
+
+    private static int countNonEmptySlots(StatisticsSnapshot statistics) {
+        int slots = 0;
+        for (DocumentType type : DocumentType.values()) {
+            for (int yearSlot = 0; yearSlot < StatisticsSnapshot.YEARS; yearSlot++) {
+                int year = StatisticsSnapshot.yearOf(yearSlot);
+                for (int month = 0; month < StatisticsSnapshot.MONTH_SLOTS; month++) {
+                    if (statistics.getTotalInMinorUnits(type, year, month) != 0
+                            || statistics.getDocumentCount(type, year, month) != 0) {
+                        slots++;
+                    }
+                }
+            }
+        }
+        return slots;
+    }
+
+    private static <E extends Enum<E>> E valueOf(Class<E> type, String name) throws StatisticsExportException {
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            throw unsupported("Unknown " + type.getSimpleName() + ": " + name);
+        }
+    }
+
+    private static StatisticsExportException unsupported(String message) {
+        return new StatisticsExportException(StatisticsExportException.Type.UNSUPPORTED_FORMAT, new IOException(message));
+    }
+}
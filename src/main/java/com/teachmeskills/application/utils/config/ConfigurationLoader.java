@@ -68,6 +68,19 @@ public class ConfigurationLoader {
     public static int SESSION_EXPIRATION_MINUTES;
     public static int MAX_AUTH_ATTEMPTS;
 
+    public static int PARSER_WORKER_THREADS;
+    public static boolean PARSER_VIRTUAL_THREADS;
+    public static boolean INCREMENTAL_MODE;
+    public static boolean STREAMING_TRAVERSAL;
+    public static int TRAVERSAL_QUEUE_CAPACITY;
+    public static String QUARANTINE_MODE;
+    public static int QUARANTINE_BATCH_SIZE;
+    public static boolean WATCH_MODE;
+    public static int WATCH_DEBOUNCE_MS;
+    public static String STATS_SNAPSHOT_DIR;
+    public static String STATS_SHARD_ID;
+    public static int TOP_DOCUMENTS_LIMIT;
+
     public static String AWS_ACCESS_KEY;
     public static String AWS_SECRET_KEY;
     public static String AWS_S3_BUCKET_NAME;
@@ -194,6 +207,21 @@ public class ConfigurationLoader {
         SESSION_TOKEN_LENGTH = getValidatedInt("SESSION_TOKEN_LENGTH", 64, 32, 128);
         SESSION_EXPIRATION_MINUTES = getValidatedInt("SESSION_EXPIRATION_MINUTES", 30, 5, 120);
         MAX_AUTH_ATTEMPTS = getValidatedInt("MAX_AUTH_ATTEMPTS", 3, 1, 5);
+        PARSER_WORKER_THREADS = getValidatedInt("PARSER_WORKER_THREADS", 1, 1, 256);
+        PARSER_VIRTUAL_THREADS = getBoolean("PARSER_VIRTUAL_THREADS", false);
+        INCREMENTAL_MODE = getBoolean("INCREMENTAL_MODE", false);
+        STREAMING_TRAVERSAL = getBoolean("STREAMING_TRAVERSAL", false);
+        TRAVERSAL_QUEUE_CAPACITY = getValidatedInt("TRAVERSAL_QUEUE_CAPACITY", 1024, 16, 65536);
+        QUARANTINE_MODE = getEnvOrDefault("QUARANTINE_MODE",
+                PROPERTIES.getString("QUARANTINE_MODE", "MOVE"));
+        QUARANTINE_BATCH_SIZE = getValidatedInt("QUARANTINE_BATCH_SIZE", 64, 1, 4096);
+        WATCH_MODE = getBoolean("WATCH_MODE", false);
+        WATCH_DEBOUNCE_MS = getValidatedInt("WATCH_DEBOUNCE_MS", 2000, 100, 60000);
+        STATS_SNAPSHOT_DIR = getEnvOrDefault("STATS_SNAPSHOT_DIR",
+                PROPERTIES.getString("STATS_SNAPSHOT_DIR", ""));
+        STATS_SHARD_ID = getEnvOrDefault("STATS_SHARD_ID",
+                PROPERTIES.getString("STATS_SHARD_ID", ""));
+        TOP_DOCUMENTS_LIMIT = getValidatedInt("TOP_DOCUMENTS_LIMIT", 10, 0, 1000);
     }
 
     private static void initializeAwsConfiguration() {
@@ -228,12 +256,30 @@ public class ConfigurationLoader {
         SESSION_TOKEN_LENGTH = 64;
         SESSION_EXPIRATION_MINUTES = 30;
         MAX_AUTH_ATTEMPTS = 3;
+        PARSER_WORKER_THREADS = 1;
+        PARSER_VIRTUAL_THREADS = false;
+        INCREMENTAL_MODE = false;
+        STREAMING_TRAVERSAL = false;
+        TRAVERSAL_QUEUE_CAPACITY = 1024;
+        QUARANTINE_MODE = "MOVE";
+        QUARANTINE_BATCH_SIZE = 64;
+        WATCH_MODE = false;
+        WATCH_DEBOUNCE_MS = 2000;
+        STATS_SNAPSHOT_DIR = "";
+        STATS_SHARD_ID = "";
+        TOP_DOCUMENTS_LIMIT = 10;
     }
 
     private static String getEnvOrDefault(String key, String defaultValue) {
         return Optional.ofNullable(System.getenv(key)).orElse(defaultValue);
     }
 
+    private static boolean getBoolean(String key, boolean defaultValue) {
+        return Optional.ofNullable(System.getenv(key))
+                .map(value -> Boolean.parseBoolean(value.trim()))
+                .orElseGet(() -> PROPERTIES.getBoolean(key, defaultValue));
+    }
+
     private static int getValidatedInt(String key, int defaultValue, int minValue, int maxValue) {
         try {
             return Optional.ofNullable(System.getenv(key))
@@ -12,6 +12,8 @@ package com.teachmeskills.application.utils.constant;
  * Constants:
  * - BUFFER_SIZE: The size of the buffer (in bytes) used for file reading and writing.
  * - MAX_FILE_SIZE_MB: Maximum allowed file size in megabytes for processing within the application.
+ * - DIRECT_SCAN_THRESHOLD_KB: File size in kilobytes from which the byte-level direct buffer scanner is used.
+ * - DIRECT_SCAN_BUFFER_SIZE: The size of the per-thread direct buffer (in bytes) used by the byte-level scanner.
 
  * Recommendations:
  * - Use BUFFER_SIZE in I/O streams to maintain consistent performance across file operations.
@@ -25,5 +27,7 @@ public interface FileIOConstants {
 
     int BUFFER_SIZE = 8192;
     int MAX_FILE_SIZE_MB = 100;
+    int DIRECT_SCAN_THRESHOLD_KB = 256;
+    int DIRECT_SCAN_BUFFER_SIZE = 1024 * 1024;
 
 }
\ No newline at end of file
@@ -15,6 +15,9 @@ import java.io.File;
  * File and Directory Path Constants:
  * - `AMOUNT_STATS_FILE_NAME`: Path to store total amount statistics.
  * - `INVALID_STATS_FILE_NAME`: Path for invalid files report.
+ * - `PERIOD_STATS_FILE_NAME`: Path to store the total amounts per type, year and month.
+ * - `FILE_MANIFEST_NAME`: Path to the manifest of already analyzed files (incremental mode).
+ * - `QUARANTINE_MANIFEST_NAME`: Path to the manifest of quarantined (rejected) files.
  * - `QR_CODE_DIR`: Directory containing QR code files.
  * - `LOG_DIR`: Directory for storing various log files.
  * - `CONFIG_DIR`: Directory for configuration resources.
@@ -38,6 +41,9 @@ public interface FilePathConstants {
 
     String AMOUNT_STATS_FILE_NAME = "C:\\Java-job\\Project 2024\\TeachMeSkills_Final_Assignment\\source\\data\\information_statistic\\oleg_total_amount.txt";
     String INVALID_STATS_FILE_NAME = "C:\\Java-job\\Project 2024\\TeachMeSkills_Final_Assignment\\source\\data\\information_statistic\\oleg_invalid_files_report.txt";
+    String PERIOD_STATS_FILE_NAME = "C:\\Java-job\\Project 2024\\TeachMeSkills_Final_Assignment\\source\\data\\information_statistic\\oleg_period_amount.txt";
+    String FILE_MANIFEST_NAME = "C:\\Java-job\\Project 2024\\TeachMeSkills_Final_Assignment\\source\\data\\information_statistic\\oleg_file_manifest.tsv";
+    String QUARANTINE_MANIFEST_NAME = "C:\\Java-job\\Project 2024\\TeachMeSkills_Final_Assignment\\source\\data\\information_statistic\\oleg_quarantine_manifest.tsv";
     String QR_CODE_DIR = "C:\\Java-job\\Project 2024\\TeachMeSkills_Final_Assignment\\source\\data\\qr_codes";
     String LOG_DIR = "C:\\Java-job\\Project 2024\\TeachMeSkills_Final_Assignment\\source\\data\\logs_report";
     String CONFIG_DIR = "C:\\Java-job\\Project 2024\\TeachMeSkills_Final_Assignment\\src\\main\\resources";
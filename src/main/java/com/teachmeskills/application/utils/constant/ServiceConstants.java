@@ -35,6 +35,6 @@ import com.teachmeskills.application.services.logger.impl.LoggerService;
 
 public interface ServiceConstants {
 
-    ILogger I_LOGGER = new LoggerService("%s [%s]: %s");
+    ILogger I_LOGGER = LoggerService.withShutdownHook("%s [%s]: %s");
     IEncryption I_ENCRYPTION_SERVICE = new EncryptionService(I_LOGGER);
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.teachmeskills.application.utils.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+/**
+ * Utility class for fixed-point monetary amounts stored as a {@code long} number of minor units
+ * (cents), so that sums are exact and accumulate without boxing or floating-point error.
+
+ * Key Features:
+ * - Allocation-free parsing of decimal amount strings such as {@code "1234.5"} into minor units
+ * - Rounding of extra fraction digits using the HALF_UP rule
+ * - Conversion back to {@link BigDecimal} or {@code double} for formatting and legacy callers
+
+ * Usage Notes:
+ * - Amount strings must use '.' as the decimal separator and contain no grouping separators;
+ *   callers normalize the text captured by the parsing regexes before calling {@link #parse(String)}
+ * - Overflow and malformed input are reported with {@link NumberFormatException}
+ */
+public final class MinorUnits {
+
+    public static final int SCALE = 2;
+    private static final long UNITS_PER_MAJOR = 100;
+
+    private MinorUnits() {
+    }
+
+    public static long parse(String amount) {
+        if (amount == null || amount.isEmpty()) {
+            throw new NumberFormatException("Empty amount");
+        }
+
+        long major = 0;
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean roundUp = false;
+        boolean inFraction = false;
+        boolean hasDigits = false;
+
+        try {
+            for (int i = 0; i < amount.length(); i++) {
+                char c = amount.charAt(i);
+                if (c == '.' && !inFraction) {
+                    inFraction = true;
+                    continue;
+                }
+                if (c < '0' || c > '9') {
+                    throw new NumberFormatException("Invalid amount: " + amount);
+                }
+                hasDigits = true;
+
+                int digit = c - '0';
+                if (!inFraction) {
+                    major = Math.addExact(Math.multiplyExact(major, 10), digit);
+                } else if (fractionDigits < SCALE) {
+                    fraction = fraction * 10 + digit;
+                    fractionDigits++;
+                } else if (fractionDigits == SCALE) {
+                    roundUp = digit >= 5;
+                    fractionDigits++;
+                }
+            }
+            if (!hasDigits) {
+                throw new NumberFormatException("Invalid amount: " + amount);
+            }
+
+            for (; fractionDigits < SCALE; fractionDigits++) {
+                fraction *= 10;
+            }
+            long minorUnits = Math.addExact(Math.multiplyExact(major, UNITS_PER_MAJOR), fraction);
+            return roundUp ? Math.addExact(minorUnits, 1) : minorUnits;
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount is out of range: " + amount);
+        }
+    }
+
+    public static long fromDouble(double amount) {
+        return BigDecimal.valueOf(amount).setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    public static double toDouble(long minorUnits) {
+        return minorUnits / (double) UNITS_PER_MAJOR;
+    }
+
+    public static String format(long minorUnits) {
+        return toBigDecimal(minorUnits).toPlainString();
+    }
+}
@@ -0,0 +1,148 @@
+package com.teachmeskills.application.services.statistic.snapshot;
+
+import com.teachmeskills.application.exception.StatisticsExportException;
+import com.teachmeskills.application.model.DocumentPeriod;
+import com.teachmeskills.application.model.DocumentType;
+import com.teachmeskills.application.model.impl.Check;
+import com.teachmeskills.application.model.impl.Invoice;
+import com.teachmeskills.application.services.logger.ILogger;
+import com.teachmeskills.application.services.parser.stats.InvalidFileStats;
+import com.teachmeskills.application.services.parser.stats.InvalidFileStats.InvalidReason;
+import com.teachmeskills.application.services.statistic.LargestDocument;
+import com.teachmeskills.application.services.statistic.StatisticsSnapshot;
+import com.teachmeskills.application.services.statistic.impl.StatsService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class ShardSnapshotCodecTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void loadReturnsTheSavedSnapshot() throws Exception {
+        ShardSnapshot saved = shard("north", "checks/check_01_2024.txt", 12_50);
+        Path file = directory.resolve(ShardSnapshotCodec.fileName("north"));
+
+        ShardSnapshotCodec.save(saved, file);
+        ShardSnapshot loaded = ShardSnapshotCodec.load(file);
+
+        assertEquals(1, loaded.shards());
+        assertEquals(saved.createdMillis(), loaded.createdMillis());
+        assertEquals(List.of("north"), loaded.shardIds());
+        assertEquals(saved.invalidFiles(), loaded.invalidFiles());
+        assertSameStatistics(saved.statistics(), loaded.statistics());
+        assertEquals(1999_00, loaded.statistics().getYearTotalInMinorUnits(DocumentType.INVOICE, StatisticsSnapshot.OTHER_YEARS));
+        assertEquals(List.of(new LargestDocument(DocumentType.INVOICE, 1999_00, "invoices/invoice_03_1999.txt", 7),
+                        new LargestDocument(DocumentType.INVOICE, 1000_00, "invoices/invoice_02_2024.txt", 3)),
+                loaded.statistics().getLargestDocuments(DocumentType.INVOICE));
+    }
+
+    @Test
+    void mergedSnapshotsAddUpTheShards() throws Exception {
+        ShardSnapshotCodec.save(shard("north", "checks/check_01_2024.txt", 12_50), directory.resolve(ShardSnapshotCodec.fileName("north")));
+        ShardSnapshotCodec.save(shard("south", "checks/check_05_2024.txt", 7_25), directory.resolve(ShardSnapshotCodec.fileName("south")));
+
+        ShardSnapshot merged = ShardSnapshot.empty();
+        for (Path file : ShardSnapshotCodec.listSnapshots(directory)) {
+            merged = merged.merge(ShardSnapshotCodec.load(file));
+        }
+
+        StatisticsSnapshot statistics = merged.statistics();
+        assertEquals(2, merged.shards());
+        assertEquals(List.of("north", "south"), merged.shardIds());
+        assertEquals(2 * 2999_00, statistics.getTotalInMinorUnits(DocumentType.INVOICE));
+        assertEquals(12_50 + 7_25, statistics.getTotalInMinorUnits(DocumentType.CHECK));
+        assertEquals(12_50, statistics.getTotalInMinorUnits(DocumentType.CHECK, 2024, 1));
+        assertEquals(7_25, statistics.getTotalInMinorUnits(DocumentType.CHECK, 2024, 5));
+        assertEquals(7_25, statistics.getMinInMinorUnits(DocumentType.CHECK));
+        assertEquals(List.of("checks/check_01_2024.txt", "checks/check_05_2024.txt"),
+                merged.invalidFiles().get(InvalidReason.EMPTY_FILE));
+        assertEquals(4, merged.getInvalidFileCount());
+    }
+
+    @Test
+    void savingAShardAgainReplacesItsSnapshot() throws Exception {
+        Path file = directory.resolve(ShardSnapshotCodec.fileName("north"));
+        ShardSnapshotCodec.save(shard("north", "checks/check_01_2024.txt", 12_50), file);
+        ShardSnapshotCodec.save(shard("north", "checks/check_05_2024.txt", 7_25), file);
+
+        assertEquals(List.of(file), ShardSnapshotCodec.listSnapshots(directory));
+        assertEquals(7_25, ShardSnapshotCodec.load(file).statistics().getTotalInMinorUnits(DocumentType.CHECK));
+    }
+
+    @Test
+    void checksumMismatchIsRejected() throws Exception {
+        Path file = directory.resolve(ShardSnapshotCodec.fileName("north"));
+        ShardSnapshotCodec.save(shard("north", "checks/check_01_2024.txt", 12_50), file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length / 2] ^= 0x01;
+        Files.write(file, bytes);
+
+        assertUnsupported(file);
+    }
+
+    @Test
+    void truncatedFileIsRejected() throws Exception {
+        Path file = directory.resolve(ShardSnapshotCodec.fileName("north"));
+        ShardSnapshotCodec.save(shard("north", "checks/check_01_2024.txt", 12_50), file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+        assertUnsupported(file);
+    }
+
+    @Test
+    void otherVersionIsRejected() throws Exception {
+        Path file = directory.resolve(ShardSnapshotCodec.fileName("north"));
+        ShardSnapshotCodec.save(shard("north", "checks/check_01_2024.txt", 12_50), file);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[5] = 2;
+        Files.write(file, bytes);
+
+        assertUnsupported(file);
+    }
+
+    private static ShardSnapshot shard(String shardId, String invalidFile, long checkAmount) {
+        StatsService statistics = new StatsService(mock(ILogger.class), 10);
+        statistics.record(Check.ofMinorUnits(checkAmount), DocumentPeriod.fromFileName(invalidFile));
+        statistics.record(Invoice.ofMinorUnits(1000_00), new DocumentPeriod(2024, 2), "invoices/invoice_02_2024.txt", 3);
+        statistics.record(Invoice.ofMinorUnits(1999_00), new DocumentPeriod(1999, 3), "invoices/invoice_03_1999.txt", 7);
+
+        InvalidFileStats invalidFiles = new InvalidFileStats();
+        invalidFiles.recordInvalidFile(InvalidReason.EMPTY_FILE, invalidFile);
+        invalidFiles.recordInvalidFile(InvalidReason.WRONG_YEAR, "orders/order.txt");
+        return ShardSnapshot.capture(shardId, statistics, invalidFiles);
+    }
+
+    private static void assertSameStatistics(StatisticsSnapshot expected, StatisticsSnapshot actual) {
+        for (DocumentType type : DocumentType.values()) {
+            assertEquals(expected.getTotalInMinorUnits(type), actual.getTotalInMinorUnits(type));
+            assertEquals(expected.getDocumentCount(type), actual.getDocumentCount(type));
+            assertEquals(expected.getMinInMinorUnits(type), actual.getMinInMinorUnits(type));
+            assertEquals(expected.getMaxInMinorUnits(type), actual.getMaxInMinorUnits(type));
+            assertEquals(expected.getLargestDocuments(type), actual.getLargestDocuments(type));
+            for (int yearSlot = 0; yearSlot < StatisticsSnapshot.YEARS; yearSlot++) {
+                int year = StatisticsSnapshot.yearOf(yearSlot);
+                for (int month = 0; month < StatisticsSnapshot.MONTH_SLOTS; month++) {
+                    assertEquals(expected.getTotalInMinorUnits(type, year, month), actual.getTotalInMinorUnits(type, year, month));
+                    assertEquals(expected.getDocumentCount(type, year, month), actual.getDocumentCount(type, year, month));
+                }
+            }
+        }
+    }
+
+    private static void assertUnsupported(Path file) {
+        StatisticsExportException exception = assertThrows(StatisticsExportException.class, () -> ShardSnapshotCodec.load(file));
+        assertEquals(StatisticsExportException.Type.UNSUPPORTED_FORMAT, exception.getType());
+    }
+}